@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import org.openjdk.backports.StringUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts push URL, user and date from the bot comments, the way reports do.
+ * "Split" is the old line-splitting parser, kept here as the baseline, and "scan"
+ * is {@link PushComment}. Comments are the shapes of real hgupdate and roboduke comments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(3)
+@State(Scope.Benchmark)
+public class PushCommentBench {
+
+    private static final String HGUPDATE =
+            "URL: http://hg.openjdk.java.net/jdk/jdk/rev/66f5241da404\n" +
+            "User: shade\n" +
+            "Date: 2019-04-15 16:22:25 +0000";
+
+    private static final String ROBODUKE =
+            "Changeset: d9cb410e\n" +
+            "Author: Aleksey Shipilev <shade@openjdk.org>\n" +
+            "Date: 2022-07-31 18:52:16 +0000\n" +
+            "URL: https://git.openjdk.org/jdk/commit/d9cb410efc07a60e426f2399e020dcaccaba7dfa";
+
+    private static final String ROBODUKE_UPDATES =
+            "A pull request was submitted for review.\n" +
+            "URL: https://git.openjdk.org/jdk17u-dev/pull/1234\n" +
+            "Date: 2023-02-01 10:11:12 +0000";
+
+    private static final String ROBODUKE_BACKPORT =
+            "Changeset: 0f3c4e2a\n" +
+            "Author:    Roland Westrelin <roland@openjdk.org>\n" +
+            "Committer: Paul Hohensee <phh@openjdk.org>\n" +
+            "Date:      2023-11-08 16:06:31 +0000\n" +
+            "URL:       https://git.openjdk.org/jdk17u-dev/commit/0f3c4e2ab1a9d0b53e58a7c3e1f2d4c5b6a7e8f9";
+
+    private static final Pattern OPENJDK_USER_ID = Pattern.compile("(.*)<(.*)@openjdk.org>");
+    private static final Pattern GENERIC_USER_ID = Pattern.compile("(.*)<(.*)>");
+
+    @Param({"hgupdate", "roboduke", "roboduke-pr", "roboduke-backport"})
+    private String kind;
+
+    private String comment;
+
+    @Setup
+    public void setup() {
+        String src;
+        switch (kind) {
+            case "hgupdate":
+                src = HGUPDATE;
+                break;
+            case "roboduke":
+                src = ROBODUKE;
+                break;
+            case "roboduke-pr":
+                src = ROBODUKE_UPDATES;
+                break;
+            case "roboduke-backport":
+                src = ROBODUKE_BACKPORT;
+                break;
+            default:
+                throw new IllegalStateException(kind);
+        }
+        // Fresh string, as if it came from parsed JSON.
+        comment = new String(src.toCharArray());
+    }
+
+    @Benchmark
+    public void scan(Blackhole bh) {
+        PushComment pc = PushComment.parse(comment);
+        bh.consume(pc.getURL());
+        bh.consume(pc.getUser());
+        bh.consume(pc.getDateTime());
+    }
+
+    @Benchmark
+    public void split(Blackhole bh) {
+        bh.consume(splitURL(comment));
+        bh.consume(splitUser(comment));
+        bh.consume(splitDate(comment));
+    }
+
+    @Benchmark
+    public long scanDaysAgo() {
+        return Parsers.parseDaysAgo(comment).orElse(-1L);
+    }
+
+    @Benchmark
+    public long splitDaysAgo() {
+        LocalDateTime d = splitDate(comment);
+        return (d != null) ? ChronoUnit.DAYS.between(d.toLocalDate(), LocalDate.now()) : -1L;
+    }
+
+    private static String splitURL(String s) {
+        for (String l : StringUtils.lines(s)) {
+            if (l.startsWith("URL")) {
+                return l.replaceFirst("URL:", "").trim();
+            }
+        }
+        return null;
+    }
+
+    private static String splitUser(String s) {
+        for (String l : StringUtils.lines(s)) {
+            if (l.startsWith("User")) {
+                return l.replaceFirst("User:", "").trim();
+            }
+            if (l.startsWith("Author")) {
+                Matcher m1 = OPENJDK_USER_ID.matcher(l);
+                if (m1.matches()) {
+                    return m1.group(2);
+                }
+                Matcher m2 = GENERIC_USER_ID.matcher(l);
+                if (m2.matches()) {
+                    return m2.group(2);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime splitDate(String s) {
+        for (String l : StringUtils.lines(s)) {
+            if (l.startsWith("Date")) {
+                String d = l.replaceFirst("Date:", "").trim();
+                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss Z");
+                return LocalDateTime.parse(d, formatter);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exercises version parsing and comparison the way reports do: over and over
+ * for the same small set of version names. Corpus is the sample of fix versions
+ * seen in OpenJDK JIRA. "Release" corpus has the usual release versions,
+ * and "odd" corpus has the special and unparseable versions, which take
+ * the exceptional paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(3)
+@State(Scope.Benchmark)
+public class VersionsBench {
+
+    private static final String[] RELEASE = {
+            "8", "8u41", "8u42", "8u202", "8u211", "8u401", "8u412", "8u421", "openjdk8u412", "openjdk8u422",
+            "11", "11.0.2", "11.0.3", "11.0.20", "11.0.23", "11.0.24", "11.0.23-oracle", "11.0.24-oracle",
+            "17", "17.0.1", "17.0.10", "17.0.11", "17.0.12", "17.0.11-oracle", "17.0.12-oracle",
+            "21", "21.0.1", "21.0.3", "21.0.4", "21.0.5", "21.0.3-oracle", "21.0.4-oracle",
+            "22", "22.0.1", "22.0.2", "23", "23.0.1", "24", "25", "7u231", "7u241", "6u211",
+            "11-pool", "17-pool", "21-pool", "8-pool",
+    };
+
+    private static final String[] ODD = {
+            "tbd", "na", "repo-valhalla", "repo-loom", "hs25", "hs24.60", "emb-8u6", "solaris_10u7",
+            "8-aarch64", "8-shenandoah", "11-shenandoah", "openjdk7u", "11.0.23-oracle", "8u",
+            "tbd_major", "tbd_minor", "17.0.11", "8u421", "21.0.4", "11-pool",
+    };
+
+    @Param({"release", "odd"})
+    private String corpus;
+
+    private String[] versions;
+
+    @Setup
+    public void setup() {
+        String[] src = corpus.equals("release") ? RELEASE : ODD;
+
+        // Reports see the versions in JIRA order, which is no particular order.
+        List<String> list = new ArrayList<>(Arrays.asList(src));
+        Collections.shuffle(list, new Random(42));
+
+        // Fresh strings, as if they came from parsed JSON.
+        versions = new String[list.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = new String(list.get(i).toCharArray());
+        }
+    }
+
+    @Benchmark
+    public void parseMajor(Blackhole bh) {
+        for (String v : versions) {
+            bh.consume(Versions.parseMajor(v));
+        }
+    }
+
+    @Benchmark
+    public void parseMinor(Blackhole bh) {
+        for (String v : versions) {
+            bh.consume(Versions.parseMinor(v));
+        }
+    }
+
+    @Benchmark
+    public void compare(Blackhole bh) {
+        for (String l : versions) {
+            for (String r : versions) {
+                bh.consume(Versions.compare(l, r));
+            }
+        }
+    }
+
+    @Benchmark
+    public void classify(Blackhole bh) {
+        for (String v : versions) {
+            bh.consume(Versions.isShared(v));
+            bh.consume(Versions.isOpen(v));
+        }
+    }
+
+    @Benchmark
+    public TreeMap<String, Integer> sortedMap() {
+        // Parity report keeps versions in the maps like this.
+        TreeMap<String, Integer> map = new TreeMap<>(Versions::compare);
+        for (String v : versions) {
+            map.merge(v, 1, Integer::sum);
+        }
+        return map;
+    }
+}
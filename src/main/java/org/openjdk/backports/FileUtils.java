@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * File helpers for the on-disk caches and archives.
+ */
+public class FileUtils {
+
+    public interface StreamWriter {
+        void write(OutputStream os) throws IOException;
+    }
+
+    /**
+     * Writes the file through the temp file in the same directory, and then moves it
+     * in place atomically, so that concurrent readers never see the partial file,
+     * and the failed write leaves the old file intact.
+     *
+     * @param file file to write
+     * @param writer writes the contents
+     * @throws IOException if file cannot be written
+     */
+    public static void writeAtomically(File file, StreamWriter writer) throws IOException {
+        Path dir = file.getAbsoluteFile().getParentFile().toPath();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getName(), ".tmp");
+        try {
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                writer.write(os);
+            }
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static void writeAtomically(File file, String contents) throws IOException {
+        writeAtomically(file, os -> os.write(contents.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Reads the JSON object from file.
+     *
+     * @param file file to read
+     * @return JSON object, or null if file is missing or broken
+     */
+    public static JSONObject readJSON(File file) {
+        try {
+            return new JSONObject(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        } catch (IOException | JSONException e) {
+            return null;
+        }
+    }
+
+}
@@ -27,16 +27,20 @@ package org.openjdk.backports;
 import org.openjdk.backports.hg.HgDB;
 import org.openjdk.backports.jira.Clients;
 import org.openjdk.backports.jira.Connect;
+import org.openjdk.backports.jira.TrafficArchive;
 import org.openjdk.backports.report.csv.*;
 import org.openjdk.backports.report.html.*;
 import org.openjdk.backports.report.model.*;
 import org.openjdk.backports.report.text.*;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.PrintStream;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class Main {
 
@@ -63,11 +67,17 @@ public class Main {
                     );
                 }
 
-                try (Clients cli = Connect.getClients(JIRA_URL, auth, options.getMaxConnections())) {
+                TrafficArchive archive = null;
+                if (options.getRecordFile() != null) {
+                    archive = TrafficArchive.record(new File(options.getRecordFile()));
+                } else if (options.getReplayFile() != null) {
+                    archive = TrafficArchive.replay(new File(options.getReplayFile()), options.getReplayLatency());
+                }
+
+                try (Clients cli = Connect.getClients(JIRA_URL, auth, options.getMaxConnections(), options.getCacheDir(), options.getUserCacheTTL(), options.getPageSize(), archive)) {
                     PrintStream debugLog = System.out;
-                    String logPrefix = options.getLogPrefix();
 
-                    HgDB hgDB = new HgDB();
+                    HgDB hgDB = new HgDB(options.getCacheDir() != null ? new File(options.getCacheDir(), "hg") : null);
                     if (options.getHgRepos() != null) {
                         hgDB.load(options.getHgRepos());
                     }
@@ -80,72 +90,127 @@ public class Main {
                     }
                     debugLog.println();
 
-                    if (options.getLabelReport() != null) {
-                        LabelModel m = new LabelModel(cli, hgDB, debugLog, options.getMinLevel(), options.getLabelReport());
-                        new LabelTextReport(m, debugLog, logPrefix).generate();
-                        new LabelCSVReport (m, debugLog, logPrefix).generate();
-                        new LabelHTMLReport(m, debugLog, logPrefix).generate();
+                    if (cli.getIssueDiskCache() != null) {
+                        cli.getIssueDiskCache().refresh(cli.getRawRest(), cli.getLimiter(), debugLog);
                     }
 
-                    if (options.getLabelHistoryReport() != null) {
-                        LabelHistoryModel m = new LabelHistoryModel(cli, debugLog, options.getLabelHistoryReport());
-                        new LabelHistoryTextReport(m, debugLog, logPrefix).generate();
-                        new LabelHistoryCSVReport (m, debugLog, logPrefix).generate();
-                        new LabelHistoryHTMLReport(m, debugLog, logPrefix).generate();
+                    // Reports running concurrently must see the same rules, load them before any of them start.
+                    if (options.getAffiliationsFile() != null) {
+                        cli.getUserCache().setAffiliationsFile(new File(options.getAffiliationsFile()));
                     }
 
-                    if (options.getPendingPushReport() != null) {
-                        PendingPushModel m = new PendingPushModel(cli, hgDB, debugLog, options.getPendingPushReport());
-                        new PendingPushTextReport(m, debugLog, logPrefix).generate();
-                        new PendingPushCSVReport (m, debugLog, logPrefix).generate();
-                        new PendingPushHTMLReport(m, debugLog, logPrefix).generate();
+                    if (options.getBatch() != null) {
+                        generateBatch(cli, hgDB, options.getBatch(), options.getBatchThreads(), debugLog);
+                    } else {
+                        generate(cli, hgDB, options, debugLog);
                     }
 
-                    if (options.getIssueReport() != null) {
-                        IssueModel m = new IssueModel(cli, hgDB, debugLog, options.getIssueReport());
-                        new IssueTextReport(m, debugLog, logPrefix).generate();
-                        new IssueCSVReport (m, debugLog, logPrefix).generate();
-                        new IssueHTMLReport(m, debugLog, logPrefix).generate();
-                    }
+                    cli.printStats(debugLog);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
 
-                    if (options.getPushesReport() != null) {
-                        PushesModel m = new PushesModel(cli, debugLog, options.directOnly(), options.getPushesReport());
-                        new PushesTextReport(m, debugLog, logPrefix).generate();
-                        new PushesCSVReport (m, debugLog, logPrefix).generate();
-                        new PushesHTMLReport(m, debugLog, logPrefix).generate();
-                    }
+    private static void generate(Clients cli, HgDB hgDB, Options spec, PrintStream debugLog) throws IOException {
+        String logPrefix = spec.getLogPrefix();
 
-                    if (options.getReleaseNotesReport() != null) {
-                        ReleaseNotesModel m = new ReleaseNotesModel(cli, debugLog, options.includeCarryovers(), options.getReleaseNotesReport());
-                        new ReleaseNotesTextReport(m, debugLog, logPrefix).generate();
-                        // No CSV report for this, it is not supposed to be machine-readable
-                        new ReleaseNotesHTMLReport(m, debugLog, logPrefix).generate();
-                    }
+        if (spec.getLabelReport() != null) {
+            LabelModel m = new LabelModel(cli, hgDB, debugLog, spec.getMinLevel(), spec.getLabelReport());
+            new LabelTextReport(m, debugLog, logPrefix).generate();
+            new LabelCSVReport (m, debugLog, logPrefix).generate();
+            new LabelHTMLReport(m, debugLog, logPrefix).generate();
+        }
 
-                    if (options.getFilterReport() != null) {
-                        FilterModel m = new FilterModel(cli, debugLog, options.getFilterReport());
-                        new FilterTextReport(m, debugLog, logPrefix).generate();
-                        new FilterCSVReport (m, debugLog, logPrefix).generate();
-                        new FilterHTMLReport(m, debugLog, logPrefix).generate();
-                    }
+        if (spec.getLabelHistoryReport() != null) {
+            LabelHistoryModel m = new LabelHistoryModel(cli, debugLog, spec.getLabelHistoryReport());
+            new LabelHistoryTextReport(m, debugLog, logPrefix).generate();
+            new LabelHistoryCSVReport (m, debugLog, logPrefix).generate();
+            new LabelHistoryHTMLReport(m, debugLog, logPrefix).generate();
+        }
 
-                    if (options.getAffiliationReport() != null) {
-                        AffiliationModel m = new AffiliationModel(cli, debugLog);
-                        new AffiliationTextReport(m, debugLog, logPrefix).generate();
-                        new AffiliationCSVReport (m, debugLog, logPrefix).generate();
-                        new AffiliationHTMLReport(m, debugLog, logPrefix).generate();
-                    }
+        if (spec.getPendingPushReport() != null) {
+            PendingPushModel m = new PendingPushModel(cli, hgDB, debugLog, spec.getPendingPushReport());
+            new PendingPushTextReport(m, debugLog, logPrefix).generate();
+            new PendingPushCSVReport (m, debugLog, logPrefix).generate();
+            new PendingPushHTMLReport(m, debugLog, logPrefix).generate();
+        }
 
-                    if (options.getParityReport() != null) {
-                        ParityModel m = new ParityModel(cli, debugLog, options.getParityReport());
-                        new ParityTextReport(m, debugLog, logPrefix).generate();
-                        new ParityCSVReport (m, debugLog, logPrefix).generate();
-                        new ParityHTMLReport(m, debugLog, logPrefix).generate();
+        if (spec.getIssueReport() != null) {
+            IssueModel m = new IssueModel(cli, hgDB, debugLog, spec.getIssueReport());
+            new IssueTextReport(m, debugLog, logPrefix).generate();
+            new IssueCSVReport (m, debugLog, logPrefix).generate();
+            new IssueHTMLReport(m, debugLog, logPrefix).generate();
+        }
+
+        if (spec.getPushesReport() != null) {
+            PushesModel m = new PushesModel(cli, debugLog, spec.directOnly(), spec.getPushesReport());
+            new PushesTextReport(m, debugLog, logPrefix).generate();
+            new PushesCSVReport (m, debugLog, logPrefix).generate();
+            new PushesHTMLReport(m, debugLog, logPrefix).generate();
+        }
+
+        if (spec.getReleaseNotesReport() != null) {
+            ReleaseNotesModel m = new ReleaseNotesModel(cli, debugLog, spec.includeCarryovers(), spec.getReleaseNotesReport());
+            new ReleaseNotesTextReport(m, debugLog, logPrefix).generate();
+            // No CSV report for this, it is not supposed to be machine-readable
+            new ReleaseNotesHTMLReport(m, debugLog, logPrefix).generate();
+        }
+
+        if (spec.getFilterReport() != null) {
+            FilterModel m = new FilterModel(cli, debugLog, spec.getFilterReport());
+            new FilterTextReport(m, debugLog, logPrefix).generate();
+            new FilterCSVReport (m, debugLog, logPrefix).generate();
+            new FilterHTMLReport(m, debugLog, logPrefix).generate();
+        }
+
+        if (spec.getAffiliationReport() != null) {
+            AffiliationModel m = new AffiliationModel(cli, debugLog);
+            new AffiliationTextReport(m, debugLog, logPrefix).generate();
+            new AffiliationCSVReport (m, debugLog, logPrefix).generate();
+            new AffiliationHTMLReport(m, debugLog, logPrefix).generate();
+        }
+
+        if (spec.getParityReport() != null) {
+            ParityModel m = new ParityModel(cli, debugLog, spec.getParityReport());
+            new ParityTextReport(m, debugLog, logPrefix).generate();
+            new ParityCSVReport (m, debugLog, logPrefix).generate();
+            new ParityHTMLReport(m, debugLog, logPrefix).generate();
+        }
+    }
+
+    private static void generateBatch(Clients cli, HgDB hgDB, List<Options> specs, int threads, PrintStream debugLog) throws InterruptedException {
+        // Models share the clients and caches, so concurrent models reuse each other's
+        // issues. Debug output is buffered per report, to keep it readable.
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        List<Future<String>> logs = new ArrayList<>();
+        for (Options spec : specs) {
+            logs.add(pool.submit(() -> {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                try (PrintStream log = new PrintStream(bos, true, "UTF-8")) {
+                    try {
+                        generate(cli, hgDB, spec, log);
+                    } catch (Exception e) {
+                        log.println("ERROR: Report failed");
+                        e.printStackTrace(log);
                     }
                 }
+                return bos.toString("UTF-8");
+            }));
+        }
+        pool.shutdown();
+
+        for (int i = 0; i < specs.size(); i++) {
+            debugLog.println("Report " + (i + 1) + "/" + specs.size() + ": " + specs.get(i).getSpec());
+            debugLog.println();
+            try {
+                debugLog.print(logs.get(i).get());
+            } catch (ExecutionException e) {
+                debugLog.println("ERROR: Report failed");
+                e.getCause().printStackTrace(debugLog);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+            debugLog.println();
         }
     }
 
@@ -30,6 +30,10 @@ import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
 
 public class Options {
     private final String[] args;
@@ -49,9 +53,28 @@ public class Options {
     private Integer parityReport;
     private boolean includeCarryovers;
     private int maxConnections;
+    private int pageSize;
+    private String cacheDir;
+    private int userCacheTTL;
+    private String affiliationsFile;
+    private String batchFile;
+    private int batchThreads;
+    private String recordFile;
+    private String replayFile;
+    private int replayLatency;
+    private List<String> globalOptions;
+    private List<Options> batch;
+
+    // Line of batch manifest, which cannot read another manifest.
+    private final boolean manifestLine;
 
     public Options(String[] args) {
+        this(args, false);
+    }
+
+    private Options(String[] args, boolean manifestLine) {
         this.args = args;
+        this.manifestLine = manifestLine;
     }
 
     public boolean parse() throws IOException {
@@ -98,8 +121,8 @@ public class Options {
                 .withRequiredArg().ofType(String.class).describedAs("output prefix").defaultsTo("output");
 
         OptionSpec<String> optUpdateHgDB = parser.accepts("hg-repos",
-                "Use these repositories for Mercurial metadata")
-                .withRequiredArg().ofType(String.class).describedAs("paths-to-local-hg");
+                "Use these local Mercurial or Git repositories for commit metadata")
+                .withRequiredArg().ofType(String.class).describedAs("paths-to-local-repos");
 
         OptionSpec<Actionable> optMinLevel = parser.accepts("min-level",
                 "Minimal actionable level to print.")
@@ -115,8 +138,48 @@ public class Options {
                 "For release reports, include carry-overs from other releases.");
 
         OptionSpec<Integer> optMaxConnections = parser.accepts("max-connections",
-                        "Max connections to have to remote JIRA server.")
-                .withRequiredArg().ofType(Integer.class).describedAs("#").defaultsTo(20);
+                        "Max connections to have to remote JIRA server. The number of concurrent requests adapts to server load, up to this limit.")
+                .withRequiredArg().ofType(Integer.class).describedAs("#").defaultsTo(50);
+
+        OptionSpec<Integer> optPageSize = parser.accepts("page-size",
+                        "Number of issues to request with a single JIRA search. JIRA might reply with less, if it decides so.")
+                .withRequiredArg().ofType(Integer.class).describedAs("#").defaultsTo(200);
+
+        OptionSpec<String> optCacheDir = parser.accepts("cache-dir",
+                        "Keep JIRA data in this directory between runs, and only reload what was updated.")
+                .withRequiredArg().ofType(String.class).describedAs("dir");
+
+        OptionSpec<Integer> optUserCacheTTL = parser.accepts("user-cache-ttl",
+                        "With --cache-dir, reuse the cached JIRA users for this many days. Older users are still used, " +
+                        "but also reloaded in background for the next run.")
+                .withRequiredArg().ofType(Integer.class).describedAs("days").defaultsTo(7);
+
+        OptionSpec<String> optAffiliations = parser.accepts("affiliations",
+                        "Use this file to map users to affiliations, instead of the built-in one.")
+                .withRequiredArg().ofType(String.class).describedAs("file");
+
+        OptionSpec<String> optBatch = parser.accepts("batch",
+                        "Generate all reports from this manifest. Every line has the report options, e.g. " +
+                        "\"--label jdk11u-fix-request --output-prefix label-jdk11u\". Arguments can be quoted. " +
+                        "Empty lines and lines starting with # are ignored. Connection, cache, Mercurial, affiliation " +
+                        "and traffic archive options are only accepted on the command line, report options only in the manifest.")
+                .withRequiredArg().ofType(String.class).describedAs("file");
+
+        OptionSpec<Integer> optBatchThreads = parser.accepts("batch-threads",
+                        "Number of reports from batch manifest to generate concurrently.")
+                .withRequiredArg().ofType(Integer.class).describedAs("#").defaultsTo(4);
+
+        OptionSpec<String> optRecord = parser.accepts("record",
+                        "Record all JIRA responses to this archive, for later replay.")
+                .withRequiredArg().ofType(String.class).describedAs("file");
+
+        OptionSpec<String> optReplay = parser.accepts("replay",
+                        "Serve all JIRA requests from this archive, instead of remote JIRA server.")
+                .withRequiredArg().ofType(String.class).describedAs("file");
+
+        OptionSpec<Integer> optReplayLatency = parser.accepts("replay-latency",
+                        "Synthetic latency for every replayed JIRA response.")
+                .withRequiredArg().ofType(Integer.class).describedAs("ms").defaultsTo(0);
 
         parser.accepts("h", "Print this help.");
 
@@ -161,6 +224,58 @@ public class Options {
         includeCarryovers = set.has(optIncludeCarryovers);
 
         maxConnections = set.valueOf(optMaxConnections);
+        pageSize = set.valueOf(optPageSize);
+        if (pageSize < 1 || pageSize > 1000) {
+            System.err.println("ERROR: Page size should be within [1, 1000].");
+            return false;
+        }
+        cacheDir = optCacheDir.value(set);
+        userCacheTTL = set.valueOf(optUserCacheTTL);
+        affiliationsFile = optAffiliations.value(set);
+
+        batchFile = optBatch.value(set);
+        batchThreads = set.valueOf(optBatchThreads);
+
+        recordFile = optRecord.value(set);
+        replayFile = optReplay.value(set);
+        replayLatency = set.valueOf(optReplayLatency);
+
+        // These options are for the whole run, and batch manifest cannot have them.
+        List<OptionSpec<?>> globalSpecs = Arrays.asList(optAuthProps, optUpdateHgDB, optMaxConnections, optPageSize,
+                optCacheDir, optUserCacheTTL, optAffiliations, optBatch, optBatchThreads,
+                optRecord, optReplay, optReplayLatency);
+        globalOptions = new ArrayList<>();
+        List<String> reportOptions = new ArrayList<>();
+        for (OptionSpec<?> spec : set.specs()) {
+            String name = "--" + spec.options().iterator().next();
+            if (globalSpecs.contains(spec)) {
+                globalOptions.add(name);
+            } else {
+                reportOptions.add(name);
+            }
+        }
+
+        if (recordFile != null && replayFile != null) {
+            System.err.println("ERROR: Cannot record and replay at the same time.");
+            return false;
+        }
+        if ((recordFile != null || replayFile != null) && cacheDir != null) {
+            // Cached issues would not be recorded, and cache refresh queries depend on current time.
+            System.err.println("ERROR: Cannot record or replay with the issue cache.");
+            return false;
+        }
+
+        if (batchFile != null && !manifestLine) {
+            if (!reportOptions.isEmpty()) {
+                System.err.println("ERROR: " + String.join(", ", reportOptions) + " should be in the batch manifest, not on the command line.");
+                return false;
+            }
+            // Check the manifest before any long work starts.
+            batch = readBatch();
+            if (batch == null) {
+                return false;
+            }
+        }
 
         return true;
     }
@@ -220,4 +335,148 @@ public class Options {
     public int getMaxConnections() {
         return maxConnections;
     }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public String getCacheDir() {
+        return cacheDir;
+    }
+
+    public String getBatchFile() {
+        return batchFile;
+    }
+
+    /**
+     * @return report specs from batch manifest, or null if there is no manifest
+     */
+    public List<Options> getBatch() {
+        return batch;
+    }
+
+    public int getBatchThreads() {
+        return batchThreads;
+    }
+
+    public int getUserCacheTTL() {
+        return userCacheTTL;
+    }
+
+    public String getAffiliationsFile() {
+        return affiliationsFile;
+    }
+
+    public String getRecordFile() {
+        return recordFile;
+    }
+
+    public String getReplayFile() {
+        return replayFile;
+    }
+
+    public int getReplayLatency() {
+        return replayLatency;
+    }
+
+    public String getSpec() {
+        return String.join(" ", args);
+    }
+
+    /**
+     * Reads the report specs from batch manifest.
+     *
+     * @return report specs, or null if manifest has errors
+     * @throws IOException if manifest cannot be read
+     */
+    private List<Options> readBatch() throws IOException {
+        List<Options> specs = new ArrayList<>();
+        Set<String> prefixes = new HashSet<>();
+        int lineNo = 0;
+        for (String line : Files.readAllLines(Paths.get(batchFile), StandardCharsets.UTF_8)) {
+            lineNo++;
+            String l = line.trim();
+            if (l.isEmpty() || l.startsWith("#")) {
+                continue;
+            }
+            List<String> args = splitArgs(l);
+            if (args == null) {
+                System.err.println("ERROR: Unterminated quote at " + batchFile + ":" + lineNo + ": " + l);
+                return null;
+            }
+            Options spec = new Options(args.toArray(new String[0]), true);
+            if (!spec.parse()) {
+                System.err.println("ERROR: Cannot parse " + batchFile + ":" + lineNo + ": " + l);
+                return null;
+            }
+            if (!spec.globalOptions.isEmpty()) {
+                System.err.println("ERROR: " + String.join(", ", spec.globalOptions) + " should be on the command line, not at " +
+                        batchFile + ":" + lineNo + ": " + l);
+                return null;
+            }
+            if (!prefixes.add(spec.getLogPrefix())) {
+                System.err.println("ERROR: Duplicate output prefix at " + batchFile + ":" + lineNo + ": " + l);
+                return null;
+            }
+            specs.add(spec);
+        }
+        return specs;
+    }
+
+    /**
+     * Splits the manifest line into arguments. Whitespace separates the arguments,
+     * single and double quotes group them, as in shell. Backslash escapes the next
+     * character, except in single quotes, where it is literal, and in double quotes,
+     * where it only escapes the double quote and the backslash itself.
+     *
+     * @param line manifest line
+     * @return arguments, or null if there is an unterminated quote
+     */
+    static List<String> splitArgs(String line) {
+        List<String> args = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean inArg = false;
+        char quote = 0;
+        int len = line.length();
+        for (int i = 0; i < len; i++) {
+            char c = line.charAt(i);
+            if (quote == '\'') {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    sb.append(c);
+                }
+            } else if (quote == '"') {
+                if (c == quote) {
+                    quote = 0;
+                } else if (c == '\\' && i + 1 < len && (line.charAt(i + 1) == '"' || line.charAt(i + 1) == '\\')) {
+                    sb.append(line.charAt(++i));
+                } else {
+                    sb.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inArg = true;
+            } else if (c == '\\' && i + 1 < len) {
+                sb.append(line.charAt(++i));
+                inArg = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inArg) {
+                    args.add(sb.toString());
+                    sb.setLength(0);
+                    inArg = false;
+                }
+            } else {
+                sb.append(c);
+                inArg = true;
+            }
+        }
+        if (quote != 0) {
+            return null;
+        }
+        if (inArg) {
+            args.add(sb.toString());
+        }
+        return args;
+    }
 }
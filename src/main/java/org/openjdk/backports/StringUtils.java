@@ -96,6 +96,8 @@ public class StringUtils {
         return s.substring(0, Math.min(s.length(), limit));
     }
 
+    // Push comments are scanned without splitting them, but this stays as the reference
+    // for their line terminators, and as the baseline for PushCommentBench.
     public static List<String> lines(String s) {
         BufferedReader br = new BufferedReader(new StringReader(s));
         return br.lines().collect(Collectors.toList());
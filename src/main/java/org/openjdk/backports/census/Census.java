@@ -24,36 +24,156 @@
  */
 package org.openjdk.backports.census;
 
+import com.atlassian.jira.rest.client.api.RestClientException;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.openjdk.backports.FileUtils;
+import org.openjdk.backports.jira.TrafficArchive;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * Reads the user IDs from OpenJDK Census. With the cache directory, the parsed
+ * IDs are kept on disk along with the page ETag and Last-Modified, so that the
+ * page is only downloaded and parsed again when it changes. If Census cannot
+ * be reached, the cached IDs are used. With the traffic archive, the page
+ * is recorded along with JIRA responses, and replayed from there.
+ */
 public class Census {
 
-    public static List<String> userIds() {
+    private static final String URL = "https://openjdk.org/census";
+
+    // Census is slow at times. With the cached copy at hand, do not wait for it long.
+    private static final int TIMEOUT_MS = 60_000;
+    private static final int CACHED_TIMEOUT_MS = 10_000;
+
+    private final File cacheFile;
+    private final TrafficArchive archive;
+
+    /**
+     * @param baseDir cache directory, or null to download Census every time
+     * @param archive traffic archive, or null if there is none
+     */
+    public Census(File baseDir, TrafficArchive archive) {
+        this.cacheFile = (baseDir != null) ? new File(new File(baseDir, "census"), "census.json") : null;
+        this.archive = archive;
+    }
+
+    public List<String> userIds() {
+        if (archive != null && archive.isReplay()) {
+            try {
+                List<String> ids = parse(Jsoup.parse(archive.replay(URL).claim(), URL));
+                if (ids != null) {
+                    return ids;
+                }
+            } catch (RestClientException e) {
+                // Not recorded, fall through.
+            }
+            System.out.println("ERROR: Census is not in the traffic archive");
+            return Collections.emptyList();
+        }
+
+        JSONObject cached = (cacheFile != null) ? FileUtils.readJSON(cacheFile) : null;
+        List<String> cachedIds = (cached != null) ? readIds(cached) : null;
+        if (cachedIds == null) {
+            cached = null;
+        }
+
         try {
-            Document doc = Jsoup.connect("http://openjdk.org/census").get();
-            for (Element row : doc.body().select("div#main > table > tbody > tr")) {
-                if (row.toString().contains("People")) {
-                    Element td = row.select("td").last();
-                    List<String> result = new ArrayList<>();
-                    for (Element links : td.select("a")) {
-                        result.add(links.text());
-                    }
-                    return result;
+            Connection conn = Jsoup.connect(URL)
+                    .timeout((cached != null) ? CACHED_TIMEOUT_MS : TIMEOUT_MS)
+                    .ignoreHttpErrors(true);
+            if (cached != null) {
+                String etag = cached.optString("etag", null);
+                String lastModified = cached.optString("lastModified", null);
+                if (etag != null) {
+                    conn.header("If-None-Match", etag);
+                }
+                if (lastModified != null) {
+                    conn.header("If-Modified-Since", lastModified);
                 }
             }
 
+            Connection.Response resp = conn.execute();
+            if (resp.statusCode() == 304 && cached != null) {
+                return cachedIds;
+            }
+            if (resp.statusCode() != 200) {
+                throw new IOException("HTTP " + resp.statusCode() + " " + resp.statusMessage());
+            }
+
+            String body = resp.body();
+            List<String> ids = parse(Jsoup.parse(body, URL));
+            if (ids == null) {
+                throw new IOException("No People in Census");
+            }
+            if (archive != null) {
+                archive.record(URL, 200, body);
+            }
+            if (cacheFile != null) {
+                save(ids, resp.header("ETag"), resp.header("Last-Modified"));
+            }
+            return ids;
         } catch (IOException e) {
+            if (cached != null) {
+                System.out.println("Cannot read Census, using the cached copy: " + e);
+                return cachedIds;
+            }
             System.out.println("ERROR: Cannot read Census");
             e.printStackTrace();
         }
         return Collections.emptyList();
     }
 
+    private static List<String> parse(Document doc) {
+        for (Element row : doc.body().select("div#main > table > tbody > tr")) {
+            if (row.toString().contains("People")) {
+                Element td = row.select("td").last();
+                List<String> result = new ArrayList<>();
+                for (Element links : td.select("a")) {
+                    result.add(links.text());
+                }
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> readIds(JSONObject json) {
+        JSONArray arr = json.optJSONArray("ids");
+        if (arr == null) {
+            return null;
+        }
+        List<String> ids = new ArrayList<>(arr.length());
+        for (int c = 0; c < arr.length(); c++) {
+            ids.add(arr.optString(c));
+        }
+        return ids;
+    }
+
+    private void save(List<String> ids, String etag, String lastModified) {
+        try {
+            JSONObject json = new JSONObject();
+            json.put("ids", new JSONArray(ids));
+            if (etag != null) {
+                json.put("etag", etag);
+            }
+            if (lastModified != null) {
+                json.put("lastModified", lastModified);
+            }
+            FileUtils.writeAtomically(cacheFile, json.toString());
+        } catch (JSONException | IOException e) {
+            // Cache is best-effort, do nothing.
+        }
+    }
+
 }
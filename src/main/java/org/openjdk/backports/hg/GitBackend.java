@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.hg;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Git history. Head is the commit hash. Commit messages follow the OpenJDK
+ * conventions: the first line is "NNNNNNN: synopsis", and backports carry
+ * the "Backport-of:" trailer. Backports get the additional "[backport] ..."
+ * synopsis line, so that they are found the same way as in Mercurial repos.
+ */
+class GitBackend extends VcsBackend {
+
+    private static final char COMMIT_START = '\u001e';
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private static final String BACKPORT_TRAILER = "Backport-of:";
+    private static final String BACKPORT_PREFIX = "[backport] ";
+
+    @Override
+    String name() {
+        return "git";
+    }
+
+    @Override
+    String remote(String repoPath) throws IOException, InterruptedException {
+        List<String> lines = exec("git", "-C", repoPath, "remote", "get-url", "origin");
+        if (lines.size() != 1) {
+            return "N/A";
+        }
+        return toWebURL(lines.get(0).trim());
+    }
+
+    static String toWebURL(String url) {
+        if (url.endsWith(".git")) {
+            url = url.substring(0, url.length() - ".git".length());
+        }
+        if (url.startsWith("git@")) {
+            url = "https://" + url.substring("git@".length()).replaceFirst(":", "/");
+        }
+        return url;
+    }
+
+    @Override
+    String head(String repoPath) throws IOException, InterruptedException {
+        List<String> lines = exec("git", "-C", repoPath, "rev-parse", "HEAD");
+        if (lines.size() != 1) {
+            throw new IOException("Cannot figure out HEAD for " + repoPath);
+        }
+        return lines.get(0).trim();
+    }
+
+    @Override
+    boolean isAncestor(String repoPath, String since, String head) {
+        try {
+            exec("git", "-C", repoPath, "merge-base", "--is-ancestor", since, head);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    void log(String repoPath, String remote, String since, String head, Consumer<HgRecord> consumer) throws IOException, InterruptedException {
+        if (head.equals(since)) {
+            return;
+        }
+        CommitParser parser = new CommitParser(remote, consumer);
+        execLines(parser::line, "git", "-C", repoPath, "log", "--no-merges",
+                "--format=%x1e%H%x00%an%n%B",
+                (since != null) ? since + ".." + head : head);
+        parser.flush();
+    }
+
+    @Override
+    HgRecord record(String remote, String hash, String[] synopsis, String author) {
+        return commitRecord(remote, hash, synopsis, author);
+    }
+
+    private static HgRecord commitRecord(String remote, String hash, String[] synopsis, String author) {
+        return new HgRecord(remote, hash, synopsis, author, remote + "/commit/" + hash);
+    }
+
+    /**
+     * Accumulates the lines of the current commit, and emits the record
+     * when the next commit starts.
+     */
+    static class CommitParser {
+        private final String remote;
+        private final Consumer<HgRecord> consumer;
+        private final List<String> lines = new ArrayList<>();
+        private String hash;
+        private String author;
+        private boolean backport;
+
+        CommitParser(String remote, Consumer<HgRecord> consumer) {
+            this.remote = remote;
+            this.consumer = consumer;
+        }
+
+        void line(String line) {
+            if (!line.isEmpty() && line.charAt(0) == COMMIT_START) {
+                flush();
+                int sep = line.indexOf(FIELD_SEPARATOR);
+                hash = line.substring(1, sep);
+                author = line.substring(sep + 1);
+                return;
+            }
+            if (hash == null) {
+                return;
+            }
+            String l = line.trim();
+            if (l.isEmpty()) {
+                return;
+            }
+            if (l.startsWith(BACKPORT_TRAILER)) {
+                backport = true;
+            }
+            lines.add(l);
+        }
+
+        void flush() {
+            if (hash != null) {
+                if (backport && !lines.isEmpty()) {
+                    lines.add(BACKPORT_PREFIX + lines.get(0));
+                }
+                consumer.accept(commitRecord(remote, hash, lines.toArray(new String[0]), author));
+            }
+            hash = null;
+            author = null;
+            backport = false;
+            lines.clear();
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.hg;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Mercurial history. Head is "rev:node": the local revision number lets us ask
+ * for the revision range, and the node tells if that revision is still the same.
+ */
+class HgBackend extends VcsBackend {
+
+    private static final String LOG_TEMPLATE =
+            "{node|short}BACKPORT-SEPARATOR{desc|addbreaks|splitlines}BACKPORT-SEPARATOR{author}\n";
+
+    @Override
+    String name() {
+        return "hg";
+    }
+
+    @Override
+    String remote(String repoPath) throws IOException, InterruptedException {
+        String repo = "N/A";
+        for (String line : exec("hg", "paths", "-R", repoPath)) {
+            if (line.startsWith("default = ")) {
+                String[] split = line.split(" = ");
+                repo = split[1];
+            }
+        }
+        return repo;
+    }
+
+    @Override
+    String head(String repoPath) throws IOException, InterruptedException {
+        List<String> lines = exec("hg", "log", "-R", repoPath, "-r", "tip", "-T", "{rev}:{node}\n");
+        if (lines.size() != 1) {
+            throw new IOException("Cannot figure out tip for " + repoPath);
+        }
+        return lines.get(0);
+    }
+
+    @Override
+    boolean isAncestor(String repoPath, String since, String head) {
+        try {
+            int sinceRev = rev(since);
+            if (sinceRev < 0 || sinceRev > rev(head)) {
+                return false;
+            }
+            List<String> lines = exec("hg", "log", "-R", repoPath, "-r", String.valueOf(sinceRev), "-T", "{rev}:{node}\n");
+            return lines.size() == 1 && lines.get(0).equals(since);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    void log(String repoPath, String remote, String since, String head, Consumer<HgRecord> consumer) throws IOException, InterruptedException {
+        int fromRev = (since != null) ? rev(since) + 1 : 0;
+        int toRev = rev(head);
+        if (fromRev > toRev) {
+            return;
+        }
+        execLines(line -> {
+            String[] split = line.split("BACKPORT-SEPARATOR");
+            consumer.accept(record(remote, split[0], split[1].split("<br/> "), split[2]));
+        }, "hg", "log", "-M", "-R", repoPath, "-r", toRev + ":" + fromRev, "-T", LOG_TEMPLATE);
+    }
+
+    @Override
+    HgRecord record(String remote, String hash, String[] synopsis, String author) {
+        return new HgRecord(remote, hash, synopsis, author, remote + "/rev/" + hash);
+    }
+
+    private static int rev(String head) {
+        return Integer.parseInt(head.substring(0, head.indexOf(':')));
+    }
+
+}
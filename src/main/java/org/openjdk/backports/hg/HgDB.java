@@ -24,19 +24,33 @@
  */
 package org.openjdk.backports.hg;
 
-import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 public class HgDB {
 
     private final Set<HgRecord> records;
 
+    // Repo URL -> synopsis line -> records. Sorted by synopsis line, so that
+    // searching by synopsis prefix only looks at the records that match.
+    private final ConcurrentMap<String, NavigableMap<String, List<HgRecord>>> index;
+
+    // Where to keep the loaded changesets between the runs, or null to always read the full logs.
+    private final File snapshotDir;
+
     public HgDB() {
+        this(null);
+    }
+
+    public HgDB(File snapshotDir) {
+        this.snapshotDir = snapshotDir;
         this.records = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        this.index = new ConcurrentHashMap<>();
     }
 
     public void load(String hgRepos) {
@@ -53,53 +67,75 @@ public class HgDB {
     }
 
     private void loadRepo(PrintStream pw, String repoPath) {
-        String repo = "N/A";
+        VcsBackend vcs = VcsBackend.forPath(repoPath);
+
+        String repo;
         try {
-            List<String> lines = exec("hg", "paths", "-R", repoPath);
-            for (String line : lines) {
-                if (line.startsWith("default = ")) {
-                    String[] split = line.split(" = ");
-                    repo = split[1];
-                }
-            }
+            repo = vcs.remote(repoPath);
         } catch (Exception e) {
             pw.println("Cannot figure out repo url for " + repoPath);
             return;
         }
 
+        // Pin the head, so that the changesets pulled while we are reading
+        // the log are picked up by the next run.
+        String head;
         try {
-            List<String> lines = exec("hg", "log", "-M", "-R", repoPath, "-T",
-                    "{node|short}BACKPORT-SEPARATOR{desc|addbreaks|splitlines}BACKPORT-SEPARATOR{author}\n");
-            for (String line : lines) {
-                String[] split = line.split("BACKPORT-SEPARATOR");
-                records.add(new HgRecord(repo, split[0], split[1], split[2]));
-            }
+            head = vcs.head(repoPath);
+        } catch (Exception e) {
+            pw.println("Cannot get changeset log for " + repoPath);
+            return;
+        }
+
+        File snapshotFile = (snapshotDir != null) ? HgSnapshot.fileFor(snapshotDir, repoPath) : null;
+        HgSnapshot snapshot = (snapshotFile != null) ? HgSnapshot.read(snapshotFile, vcs) : null;
+        if (snapshot != null && !(snapshot.repo.equals(repo) && vcs.isAncestor(repoPath, snapshot.head, head))) {
+            // Different remote, or history was rewritten: start over.
+            snapshot = null;
+        }
 
-            pw.println("Loaded " +  lines.size() + " changesets from " + repoPath);
+        // Newest changesets go first, like in the full log.
+        List<HgRecord> repoRecords = new ArrayList<>();
+        try {
+            vcs.log(repoPath, repo, (snapshot != null) ? snapshot.head : null, head, repoRecords::add);
         } catch (Exception e) {
             pw.println("Cannot get changeset log for " + repoPath);
             return;
         }
-    }
+        int newRecords = repoRecords.size();
+        if (snapshot != null) {
+            repoRecords.addAll(snapshot.records);
+        }
 
-    private List<String> exec(String... command) throws IOException, InterruptedException {
-        ProcessBuilder pb = new ProcessBuilder().command(command);
-        Process p = pb.start();
+        for (HgRecord r : repoRecords) {
+            add(r);
+        }
 
-        List<String> result = new ArrayList<>();
-        BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream()));
-        String line;
-        while ((line = br.readLine()) != null) {
-            result.add(line);
+        pw.println("Loaded " + repoRecords.size() + " changesets from " + repoPath +
+                ((snapshot != null) ? " (" + newRecords + " new)" : ""));
+
+        if (snapshotFile != null) {
+            try {
+                new HgSnapshot(vcs.name(), repo, head, repoRecords).write(snapshotFile);
+            } catch (IOException e) {
+                pw.println("Cannot save changesets for " + repoPath + ": " + e.getMessage());
+            }
         }
+    }
 
-        p.waitFor();
-        return result;
+    private void add(HgRecord record) {
+        if (!records.add(record)) {
+            return;
+        }
+        NavigableMap<String, List<HgRecord>> bySynopsis = index.computeIfAbsent(record.repo, k -> new ConcurrentSkipListMap<>());
+        for (String syn : record.synopsis) {
+            bySynopsis.computeIfAbsent(syn, k -> Collections.synchronizedList(new ArrayList<>())).add(record);
+        }
     }
 
     public boolean hasRepo(String repo) {
-        for (HgRecord record : records) {
-            if (record.repo.contains(repo)) {
+        for (String r : index.keySet()) {
+            if (r.contains(repo)) {
                 return true;
             }
         }
@@ -107,13 +143,22 @@ public class HgDB {
     }
 
     public List<HgRecord> search(String repo, String synopsis) {
-        List<HgRecord> result = new ArrayList<>();
-        for (HgRecord record : records) {
-            if (record.repo.contains(repo) && record.synopsisStartsWith(synopsis)) {
-                result.add(record);
+        Set<HgRecord> result = new LinkedHashSet<>();
+        for (Map.Entry<String, NavigableMap<String, List<HgRecord>>> e : index.entrySet()) {
+            if (!e.getKey().contains(repo)) {
+                continue;
+            }
+            // All lines that start with synopsis are in this range.
+            for (Map.Entry<String, List<HgRecord>> m : e.getValue().tailMap(synopsis, true).entrySet()) {
+                if (!m.getKey().startsWith(synopsis)) {
+                    break;
+                }
+                synchronized (m.getValue()) {
+                    result.addAll(m.getValue());
+                }
             }
         }
-        return result;
+        return new ArrayList<>(result);
     }
 
 }
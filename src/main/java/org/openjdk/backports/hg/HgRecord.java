@@ -29,12 +29,14 @@ public class HgRecord {
     final String hash;
     final String[] synopsis;
     final String author;
+    final String url;
 
-    HgRecord(String repo, String hash, String synopsis, String author) {
+    HgRecord(String repo, String hash, String[] synopsis, String author, String url) {
         this.repo = repo;
         this.hash = hash;
-        this.synopsis = synopsis.split("<br/> ");
+        this.synopsis = synopsis;
         this.author = author;
+        this.url = url;
     }
 
     @Override
@@ -57,7 +59,7 @@ public class HgRecord {
 
     @Override
     public String toString() {
-        return repo + "/rev/" + hash;
+        return url;
     }
 
     public boolean synopsisStartsWith(String needle) {
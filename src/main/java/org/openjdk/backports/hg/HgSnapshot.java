@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.hg;
+
+import org.openjdk.backports.FileUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Changesets of a single local repository, as loaded by the last run.
+ * Remembers the head the log was taken at, so that the next run
+ * only needs to ask the backend for the changesets that came after it.
+ */
+class HgSnapshot {
+
+    private static final int MAGIC = 0x48474442; // "HGDB"
+    private static final int VERSION = 2;
+
+    final String backend;
+    final String repo;
+    final String head;
+    final List<HgRecord> records;
+
+    HgSnapshot(String backend, String repo, String head, List<HgRecord> records) {
+        this.backend = backend;
+        this.repo = repo;
+        this.head = head;
+        this.records = records;
+    }
+
+    /**
+     * Snapshot file for the local repository in the given directory.
+     */
+    static File fileFor(File dir, String repoPath) {
+        String path = new File(repoPath).getAbsolutePath();
+        String name = path.replaceAll("[^A-Za-z0-9._-]", "_");
+        return new File(dir, name + "-" + Integer.toHexString(path.hashCode()) + ".bin");
+    }
+
+    /**
+     * Reads the snapshot, or returns null if it is missing or unreadable.
+     */
+    static HgSnapshot read(File file, VcsBackend vcs) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+                return null;
+            }
+            String backend = readString(dis);
+            if (!backend.equals(vcs.name())) {
+                return null;
+            }
+            String repo = readString(dis);
+            String head = readString(dis);
+            int count = dis.readInt();
+            List<HgRecord> records = new ArrayList<>(count);
+            for (int c = 0; c < count; c++) {
+                String hash = readString(dis);
+                String[] synopsis = new String[dis.readInt()];
+                for (int s = 0; s < synopsis.length; s++) {
+                    synopsis[s] = readString(dis);
+                }
+                String author = readString(dis);
+                records.add(vcs.record(repo, hash, synopsis, author));
+            }
+            return new HgSnapshot(backend, repo, head, records);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    void write(File file) throws IOException {
+        FileUtils.writeAtomically(file, os -> {
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(os)))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                writeString(dos, backend);
+                writeString(dos, repo);
+                writeString(dos, head);
+                dos.writeInt(records.size());
+                for (HgRecord r : records) {
+                    writeString(dos, r.hash);
+                    dos.writeInt(r.synopsis.length);
+                    for (String s : r.synopsis) {
+                        writeString(dos, s);
+                    }
+                    writeString(dos, r.author);
+                }
+            }
+        });
+    }
+
+    private static String readString(DataInputStream dis) throws IOException {
+        byte[] bytes = new byte[dis.readInt()];
+        dis.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream dos, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.hg;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the commit history of a local repository. The position in the history
+ * is an opaque "head" string, which the backend itself gives out and later
+ * accepts back, so that only the commits after it can be read.
+ */
+abstract class VcsBackend {
+
+    // Nobody reads stderr, so it goes nowhere, and the chatty commands cannot fill up the pipe and stall.
+    private static final File NULL_FILE =
+            new File(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null");
+
+    static VcsBackend forPath(String repoPath) {
+        if (new File(repoPath, ".git").exists()) {
+            return new GitBackend();
+        }
+        return new HgBackend();
+    }
+
+    /**
+     * Short backend name, kept in the snapshots.
+     */
+    abstract String name();
+
+    /**
+     * Remote URL the records are attributed to.
+     */
+    abstract String remote(String repoPath) throws IOException, InterruptedException;
+
+    /**
+     * Current head of the repository.
+     */
+    abstract String head(String repoPath) throws IOException, InterruptedException;
+
+    /**
+     * Checks that the history up to the old head is still there, and everything after
+     * it can be read with {@link #log(String, String, String, String, Consumer)}.
+     */
+    abstract boolean isAncestor(String repoPath, String since, String head);
+
+    /**
+     * Streams the commits after {@code since} (or all commits, if null) up to
+     * {@code head}, newest first, skipping merges.
+     */
+    abstract void log(String repoPath, String remote, String since, String head, Consumer<HgRecord> consumer) throws IOException, InterruptedException;
+
+    /**
+     * Makes the record back from its stored parts.
+     */
+    abstract HgRecord record(String remote, String hash, String[] synopsis, String author);
+
+    static List<String> exec(String... command) throws IOException, InterruptedException {
+        List<String> result = new ArrayList<>();
+        execLines(result::add, command);
+        return result;
+    }
+
+    static void execLines(Consumer<String> consumer, String... command) throws IOException, InterruptedException {
+        ProcessBuilder pb = new ProcessBuilder().command(command);
+        pb.redirectError(ProcessBuilder.Redirect.to(NULL_FILE));
+        Process p = pb.start();
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                consumer.accept(line);
+            }
+        }
+
+        if (p.waitFor() != 0) {
+            throw new IOException("Command failed: " + String.join(" ", command));
+        }
+    }
+
+}
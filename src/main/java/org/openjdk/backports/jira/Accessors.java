@@ -25,6 +25,7 @@
 package org.openjdk.backports.jira;
 
 import com.atlassian.jira.rest.client.api.IssueRestClient;
+import com.atlassian.jira.rest.client.api.RestClientException;
 import com.atlassian.jira.rest.client.api.domain.*;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
@@ -54,27 +55,10 @@ public class Accessors {
         return res;
     }
 
-    private static boolean isBotPushComment(Comment c) {
-        String name = c.getAuthor().getName();
-        if (!name.equals("hgupdate") &&
-            !name.equals("roboduke") &&
-            !name.equals("dukebot")) {
-            return false;
-        }
-        if (c.getBody().contains("A pull request was submitted for review.")) {
-            return false;
-        }
-        return true;
-    }
-
     public static String getPushURL(Issue issue) {
-        for (Comment c : issue.getComments()) {
-            if (isBotPushComment(c)) {
-                Optional<String> opt = Parsers.parseURL(c.getBody());
-                if (opt.isPresent()) {
-                    return opt.get();
-                }
-            }
+        String url = PushFacts.of(issue).getURL();
+        if (url != null) {
+            return url;
         }
 
         String fixVersion = getFixVersion(issue);
@@ -90,39 +74,16 @@ public class Accessors {
     }
 
     public static String getPushUser(Issue issue) {
-        for (Comment c : issue.getComments()) {
-            if (isBotPushComment(c)) {
-                Optional<String> opt = Parsers.parseUser(c.getBody());
-                if (opt.isPresent()) {
-                    return opt.get();
-                }
-            }
-        }
-        return "N/A";
+        String user = PushFacts.of(issue).getUser();
+        return (user != null) ? user : "N/A";
     }
 
     public static long getPushDaysAgo(Issue issue) {
-        for (Comment c : issue.getComments()) {
-            if (isBotPushComment(c)) {
-                Optional<Long> opt = Parsers.parseDaysAgo(c.getBody());
-                if (opt.isPresent()) {
-                    return opt.get();
-                }
-            }
-        }
-        return -1;
+        return PushFacts.of(issue).getDaysAgo();
     }
 
     public static long getPushSecondsAgo(Issue issue) {
-        for (Comment c : issue.getComments()) {
-            if (isBotPushComment(c)) {
-                Optional<Long> opt = Parsers.parseSecondsAgo(c.getBody());
-                if (opt.isPresent()) {
-                    return opt.get();
-                }
-            }
-        }
-        return -1;
+        return PushFacts.of(issue).getSecondsAgo();
     }
 
     public static int getPriority(Issue issue) {
@@ -231,9 +192,16 @@ public class Accessors {
                 && isDelivered(issue);
     }
 
-    public static Collection<String> getReviewURLs(RawRestClient raw, Issue issue, int majorVer) {
+    public static Collection<String> getReviewURLs(ConcurrencyLimiter limiter, RawRestClient raw, Issue issue, int majorVer) {
+        Collection<String> links;
+        try {
+            links = new RetryableRemoteLinksPromise(limiter, raw, issue.getKey()).claim();
+        } catch (RestClientException e) {
+            links = Collections.emptyList();
+        }
+
         Collection<String> res = new ArrayList<>();
-        for (String link : raw.remoteLinks(issue.getKey())) {
+        for (String link : links) {
             if (link.contains("jdk" + majorVer + "/pull/") ||
                 link.contains("jdk" + majorVer + "u/pull/") ||
                 link.contains("jdk" + majorVer + "u-dev/pull/")) {
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Classifies the users by their email domain and name. Domains are kept in the trie
+ * keyed by domain labels in reverse order, so that both the exact domain and all
+ * its parent domains are found with the single walk over the domain.
+ * Rules come from the mapping file, see the bundled affiliations.txt for the format.
+ */
+public class AffiliationClassifier {
+
+    private static final String DEFAULT_RESOURCE = "/affiliations.txt";
+
+    private static class Node {
+        final Map<String, Node> children = new HashMap<>();
+        String exact;
+        String suffix;
+        String independent;
+    }
+
+    private final Node root;
+    private final Map<String, String> names;
+
+    private AffiliationClassifier(Node root, Map<String, String> names) {
+        this.root = root;
+        this.names = names;
+    }
+
+    /**
+     * Reads the rules bundled with the tool.
+     *
+     * @return classifier
+     */
+    public static AffiliationClassifier defaults() {
+        try (InputStream is = AffiliationClassifier.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (is == null) {
+                throw new IllegalStateException("Cannot find " + DEFAULT_RESOURCE);
+            }
+            BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = br.readLine()) != null) {
+                lines.add(line);
+            }
+            return parse(lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static AffiliationClassifier load(File file) throws IOException {
+        return parse(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    public static AffiliationClassifier parse(List<String> lines) {
+        Node root = new Node();
+        Map<String, String> names = new HashMap<>();
+        int lineNum = 0;
+        for (String line : lines) {
+            lineNum++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            int space = line.indexOf(' ');
+            if (space == -1) {
+                throw new IllegalArgumentException("Line " + lineNum + ": cannot parse \"" + line + "\"");
+            }
+            String kind = line.substring(0, space);
+            String rest = line.substring(space + 1).trim();
+
+            if (kind.equals("independent")) {
+                node(root, rest).independent = "Independent";
+                continue;
+            }
+
+            int eq = rest.indexOf('=');
+            if (eq == -1) {
+                throw new IllegalArgumentException("Line " + lineNum + ": no affiliation in \"" + line + "\"");
+            }
+            String key = rest.substring(0, eq).trim();
+            String value = rest.substring(eq + 1).trim();
+            switch (kind) {
+                case "domain":
+                    node(root, key).exact = value;
+                    break;
+                case "suffix":
+                    node(root, key).suffix = value;
+                    break;
+                case "name":
+                    names.put(key, value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Line " + lineNum + ": unknown rule \"" + kind + "\"");
+            }
+        }
+        return new AffiliationClassifier(root, names);
+    }
+
+    private static Node node(Node root, String domain) {
+        Node n = root;
+        String[] labels = domain.toLowerCase(Locale.ROOT).split("\\.");
+        for (int i = labels.length - 1; i >= 0; i--) {
+            n = n.children.computeIfAbsent(labels[i], k -> new Node());
+        }
+        return n;
+    }
+
+    /**
+     * Classifies the user.
+     *
+     * @param fullName user display name
+     * @param domain email domain, with the leading "@"
+     * @return affiliation, or the domain itself if no rules match
+     */
+    public String classify(String fullName, String domain) {
+        String d = domain.startsWith("@") ? domain.substring(1) : domain;
+        d = d.toLowerCase(Locale.ROOT);
+
+        // Walk the labels from the end, remembering the deepest suffix rule on the way.
+        Node n = root;
+        String suffix = null;
+        int end = d.length();
+        while (n != null) {
+            int start = d.lastIndexOf('.', end - 1);
+            n = n.children.get(d.substring(start + 1, end));
+            if (n != null && n.suffix != null) {
+                suffix = n.suffix;
+            }
+            if (start < 0) {
+                break;
+            }
+            end = start;
+        }
+        // Reached the end of domain: the node is for the whole domain.
+        Node exact = n;
+
+        if (exact != null && exact.exact != null) {
+            return exact.exact;
+        }
+        if (suffix != null) {
+            return suffix;
+        }
+        String byName = names.get(fullName);
+        if (byName != null) {
+            return byName;
+        }
+        if (exact != null && exact.independent != null) {
+            return exact.independent;
+        }
+        return domain;
+    }
+
+}
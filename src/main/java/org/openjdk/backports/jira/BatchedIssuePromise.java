@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BatchedIssuePromise implements IssuePromise {
+    private final Issues issues;
+    private final RetryableBatchPromise batch;
+    private final String key;
+    private final boolean full;
+
+    // Individual request, when the issue is not in the batch. Made at most once,
+    // so that every caller gets the same issue instance for one request.
+    private final AtomicReference<IssuePromise> fallback = new AtomicReference<>();
+
+    public BatchedIssuePromise(Issues issues, RetryableBatchPromise batch, String key, boolean full) {
+        this.issues = issues;
+        this.batch = batch;
+        this.key = key;
+        this.full = full;
+    }
+
+    @Override
+    public Issue claim() {
+        Issue issue = null;
+        try {
+            issue = batch.claim().get(key);
+        } catch (RestClientException e) {
+            // Batch failed as a whole, for example when one of the issues is not accessible.
+        }
+
+        if (issue == null) {
+            // Not in the batch, for example when issue was moved and has a new key.
+            // Resolve it individually then.
+            issue = fallback().claim();
+        }
+
+        return register(issue);
+    }
+
+    @Override
+    public CompletableFuture<Issue> future() {
+        return batch.future()
+                .handle((m, e) -> (e == null) ? m.get(key) : null)
+                .thenComposeAsync(issue -> (issue != null) ?
+                        CompletableFuture.completedFuture(issue) :
+                        fallback().future(),
+                        Issues.ASYNC)
+                .thenApply(this::register);
+    }
+
+    private IssuePromise fallback() {
+        IssuePromise p = fallback.get();
+        if (p == null) {
+            synchronized (fallback) {
+                p = fallback.get();
+                if (p == null) {
+                    p = issues.newIssuePromise(key, full);
+                    fallback.set(p);
+                }
+            }
+        }
+        return p;
+    }
+
+    private Issue register(Issue issue) {
+        if (issue != null) {
+            issues.registerIssueCache(key, issue, full);
+        }
+        return issue;
+    }
+}
@@ -24,27 +24,121 @@
  */
 package org.openjdk.backports.jira;
 
-import com.atlassian.jira.rest.client.api.JiraRestClient;
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.domain.Filter;
+import com.atlassian.jira.rest.client.api.domain.Project;
+import com.atlassian.jira.rest.client.internal.json.FilterJsonParser;
+import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
+import com.atlassian.jira.rest.client.internal.json.ProjectJsonParser;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.openjdk.backports.census.Census;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
 
 public class Clients implements AutoCloseable {
-    private final JiraRestClient jiraRest;
     private final RawRestClient rawRest;
+    private final IssueDiskCache issueDiskCache;
+    private final ConcurrencyLimiter limiter;
+    private final IssueCache issueCache;
+    private final UserCache userCache;
+    private final int pageSize;
+    private volatile Map<String, String> fieldIds;
 
-    public Clients(JiraRestClient jiraRest, RawRestClient rawRest) {
-        this.jiraRest = jiraRest;
+    public Clients(RawRestClient rawRest, IssueDiskCache issueDiskCache, UserDiskCache userDiskCache, Census census, ConcurrencyLimiter limiter, int pageSize) {
         this.rawRest = rawRest;
-    }
-
-    public JiraRestClient getJiraRest() {
-        return jiraRest;
+        this.issueDiskCache = issueDiskCache;
+        this.limiter = limiter;
+        this.issueCache = new IssueCache();
+        this.userCache = new UserCache(rawRest, limiter, userDiskCache, census);
+        this.pageSize = pageSize;
     }
 
     public RawRestClient getRawRest() {
         return rawRest;
     }
 
+    public IssueDiskCache getIssueDiskCache() {
+        return issueDiskCache;
+    }
+
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    public IssueCache getIssueCache() {
+        return issueCache;
+    }
+
+    public UserCache getUserCache() {
+        return userCache;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Maps field names to field IDs. Custom fields can only be requested by IDs,
+     * which are specific to JIRA instance. The mapping is loaded once per run.
+     *
+     * @return field name to field ID map
+     */
+    public Map<String, String> getFieldIds() {
+        Map<String, String> ids = fieldIds;
+        if (ids == null) {
+            ids = new HashMap<>();
+            try {
+                JSONArray arr = new JSONArray(rawRest.fields().claim());
+                for (int c = 0; c < arr.length(); c++) {
+                    JSONObject f = arr.getJSONObject(c);
+                    ids.put(f.getString("name"), f.getString("id"));
+                }
+            } catch (JSONException e) {
+                throw new RestClientException(e);
+            }
+            fieldIds = ids;
+        }
+        return ids;
+    }
+
+    public Project getProject(String key) {
+        return parse(rawRest.project(key).claim(), new ProjectJsonParser());
+    }
+
+    public Filter getFilter(long id) {
+        return parse(rawRest.filter(id).claim(), new FilterJsonParser());
+    }
+
+    private static <T> T parse(String json, JsonObjectParser<T> parser) {
+        try {
+            return parser.parse(new JSONObject(json));
+        } catch (JSONException e) {
+            throw new RestClientException(e);
+        }
+    }
+
+    /**
+     * Prints the stats for JIRA requests and caches.
+     *
+     * @param out stream to print to
+     */
+    public void printStats(PrintStream out) {
+        limiter.printStats(out);
+        issueCache.printStats(out);
+        userCache.printStats(out);
+        if (rawRest.getArchive() != null) {
+            rawRest.getArchive().printStats(out);
+        }
+        out.println();
+    }
+
     @Override
     public void close() throws Exception {
-        jiraRest.close();
+        userCache.save();
+        rawRest.close();
     }
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the number of in-flight JIRA requests. The limit adapts to what JIRA
+ * can handle at the moment: it grows additively while latency is stable, and
+ * shrinks multiplicatively when JIRA throttles us, fails, or latency spikes.
+ * Requests of different kinds take very different time to serve, so the usual
+ * latency is tracked for each kind separately.
+ */
+public class ConcurrencyLimiter {
+
+    /**
+     * Kind of request, the usual latency is tracked for each kind.
+     */
+    public enum Kind {
+        /** Search page, up to page size issues. */
+        SEARCH,
+        /** Key-in-list search, with all fields and changelog. */
+        BATCH,
+        /** Single issue. */
+        ISSUE,
+        /** Single user. */
+        USER,
+        /** Remote links of single issue. */
+        LINKS,
+    }
+
+    // Start conservatively, the limit would grow quickly if JIRA keeps up.
+    private static final int INITIAL_LIMIT = 8;
+
+    // Latency is a spike when it is this many times larger than the usual one.
+    private static final double SPIKE_FACTOR = 3.0;
+
+    // Smoothing factor for the usual latency.
+    private static final double LATENCY_ALPHA = 0.05;
+
+    // Shrink the limit by this factor on congestion.
+    private static final double BACKOFF = 0.7;
+
+    // Number of recent latency samples to keep for percentiles.
+    private static final int SAMPLES = 4096;
+
+    private final int maxLimit;
+    private final long[] latencies;
+    private final double[] usualLatency;
+    private final LongSupplier clock;
+
+    private double limit;
+    private int inFlight;
+    private long lastBackoff;
+    private long requests;
+    private long errors;
+    private int peakLimit;
+
+    // Retries go through the same limiter, so they share the budget too.
+    private final RetryBudget retryBudget = new RetryBudget();
+
+    public ConcurrencyLimiter(int maxLimit) {
+        this(maxLimit, System::nanoTime);
+    }
+
+    ConcurrencyLimiter(int maxLimit, LongSupplier clock) {
+        this.clock = clock;
+        this.maxLimit = Math.max(1, maxLimit);
+        this.limit = Math.min(INITIAL_LIMIT, this.maxLimit);
+        this.peakLimit = (int) limit;
+        this.latencies = new long[SAMPLES];
+        this.usualLatency = new double[Kind.values().length];
+    }
+
+    RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Waits until the request can be submitted.
+     *
+     * @param kind kind of request
+     * @return ticket to report request completion to
+     * @throws RestClientException if interrupted while waiting; no slot is taken then
+     */
+    public synchronized Ticket acquire(Kind kind) {
+        while (inFlight >= (int) limit) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RestClientException(e);
+            }
+        }
+        inFlight++;
+        return new Ticket(kind, clock.getAsLong());
+    }
+
+    private synchronized void release(Kind kind, long start, Throwable error) {
+        long now = clock.getAsLong();
+        long latency = now - start;
+        int wasInFlight = inFlight--;
+
+        latencies[(int) (requests % SAMPLES)] = latency;
+        requests++;
+
+        boolean congested;
+        if (error != null) {
+            congested = isCongestion(error);
+            if (congested) {
+                errors++;
+            }
+        } else {
+            double usual = usualLatency[kind.ordinal()];
+            congested = (usual > 0) && (latency > usual * SPIKE_FACTOR);
+            usualLatency[kind.ordinal()] = (usual > 0) ?
+                    usual + (latency - usual) * LATENCY_ALPHA :
+                    latency;
+        }
+
+        if (congested) {
+            // Back off once per congestion event: requests that were already
+            // in flight at the last back off would likely report the same event.
+            if (start > lastBackoff) {
+                limit = Math.max(1, limit * BACKOFF);
+                lastBackoff = now;
+            }
+        } else if (wasInFlight * 2 >= limit) {
+            // Grow by about one for every limit-worth of requests, but only when
+            // the limit was actually used.
+            limit = Math.min(maxLimit, limit + 1 / limit);
+            peakLimit = Math.max(peakLimit, (int) limit);
+        }
+
+        notifyAll();
+    }
+
+    private static boolean isCongestion(Throwable t) {
+        if (t instanceof RestClientException) {
+            Integer code = ((RestClientException) t).getStatusCode().orNull();
+            if (code != null) {
+                return code == 429 || code >= 500;
+            }
+        }
+        // No status code: timeouts, connection failures, etc.
+        return true;
+    }
+
+    /**
+     * Prints the current limit, latency and error stats.
+     *
+     * @param out stream to print to
+     */
+    public synchronized void printStats(PrintStream out) {
+        int count = (int) Math.min(requests, SAMPLES);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        out.println("JIRA requests: " + requests + " total, " +
+                String.format("%.1f%%", (requests > 0) ? 100.0 * errors / requests : 0.0) + " throttled or failed");
+        out.println("  Latency: p50 = " + percentileMs(sorted, 0.5) + " ms, p99 = " + percentileMs(sorted, 0.99) + " ms");
+        out.println("  Concurrency: " + (int) limit + " now, " + peakLimit + " peak, " + maxLimit + " max");
+        retryBudget.printStats(out);
+    }
+
+    private static long percentileMs(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int idx = Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, idx)] / 1_000_000;
+    }
+
+    public class Ticket {
+        private final Kind kind;
+        private final long start;
+
+        private Ticket(Kind kind, long start) {
+            this.kind = kind;
+            this.start = start;
+        }
+
+        public void success() {
+            release(kind, start, null);
+        }
+
+        public void failure(Throwable t) {
+            release(kind, start, t);
+        }
+    }
+
+}
@@ -29,16 +29,15 @@ import com.atlassian.httpclient.apache.httpcomponents.DefaultHttpClientFactory;
 import com.atlassian.httpclient.api.HttpClient;
 import com.atlassian.httpclient.api.factory.HttpClientOptions;
 import com.atlassian.jira.rest.client.api.AuthenticationHandler;
-import com.atlassian.jira.rest.client.api.JiraRestClient;
 import com.atlassian.jira.rest.client.auth.AnonymousAuthenticationHandler;
 import com.atlassian.jira.rest.client.auth.BasicHttpAuthenticationHandler;
-import com.atlassian.jira.rest.client.internal.async.AsynchronousJiraRestClient;
 import com.atlassian.jira.rest.client.internal.async.AtlassianHttpClientDecorator;
 import com.atlassian.jira.rest.client.internal.async.DisposableHttpClient;
 import com.atlassian.sal.api.ApplicationProperties;
 import com.atlassian.sal.api.UrlMode;
 import com.atlassian.sal.api.executor.ThreadLocalContextManager;
 import org.openjdk.backports.Auth;
+import org.openjdk.backports.census.Census;
 
 import java.io.File;
 import java.net.URI;
@@ -51,9 +50,26 @@ import java.util.concurrent.TimeUnit;
 
 public class Connect {
 
-    public static Clients getClients(String jiraURL, Auth auth, int maxConnections) throws URISyntaxException {
+    public static Clients getClients(String jiraURL, Auth auth, int maxConnections, String cacheDir, int userCacheTTL, int pageSize, TrafficArchive archive) throws URISyntaxException {
         final URI uri = new URI(jiraURL);
 
+        // Replay never goes to the network.
+        DisposableHttpClient dispClient = null;
+        if (archive == null || !archive.isReplay()) {
+            dispClient = getHttpClient(uri, auth, maxConnections);
+        }
+
+        return new Clients(
+                new RawRestClient(uri, dispClient, archive),
+                (cacheDir != null) ? new IssueDiskCache(new File(cacheDir)) : null,
+                (cacheDir != null) ? new UserDiskCache(new File(cacheDir), userCacheTTL) : null,
+                new Census((cacheDir != null) ? new File(cacheDir) : null, archive),
+                new ConcurrencyLimiter(maxConnections),
+                pageSize
+        );
+    }
+
+    private static DisposableHttpClient getHttpClient(URI uri, Auth auth, int maxConnections) {
         DefaultHttpClientFactory factory = new DefaultHttpClientFactory(
                 new MyEventPublisher(),
                 new MyApplicationProperties(uri),
@@ -75,8 +91,8 @@ public class Connect {
         opts.setMaxCacheObjectSize(100_000);
 
         // Make sure we do not overwhelm the target with too many concurrent
-        // requests. Limiting the number of connections should do the trick,
-        // assuming similar request rate per connection.
+        // requests. The limiter adapts the number of in-flight requests to what
+        // the target can handle, and connections limit is the hard cap for it.
         opts.setMaxTotalConnections(maxConnections);
 
         // Make sure we have enough threads to process the requests.
@@ -91,14 +107,9 @@ public class Connect {
         } else {
             authHandler = new BasicHttpAuthenticationHandler(auth.getUser(), auth.getPass());
         }
-        DisposableHttpClient dispClient = new AtlassianHttpClientDecorator(client, authHandler) {
+        return new AtlassianHttpClientDecorator(client, authHandler) {
             @Override public void destroy() throws Exception { factory.dispose(client); }
         };
-
-        return new Clients(
-                new AsynchronousJiraRestClient(uri, dispClient),
-                new RawRestClient(uri, dispClient)
-        );
     }
 
     private static class MyEventPublisher implements EventPublisher {
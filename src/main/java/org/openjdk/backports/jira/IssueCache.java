@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+
+import java.io.PrintStream;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Run-scoped issue cache, shared by all models. Models request different fields,
+ * so every entry remembers what it has, and serves only the requests it covers.
+ */
+public class IssueCache {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong sharedHits = new AtomicLong();
+    private final AtomicLong diskLoads = new AtomicLong();
+    private final AtomicLong jiraLoads = new AtomicLong();
+
+    /**
+     * Replies the cached issue, or starts loading it.
+     *
+     * @param owner the accessor that asks
+     * @param key issue key
+     * @param fields fields the issue should have
+     * @param full whether issue should have all metadata, e.g. changelog
+     * @param loader loads the issue if cache has nothing suitable
+     * @return issue promise
+     */
+    IssuePromise get(Issues owner, String key, Set<String> fields, boolean full, Supplier<IssuePromise> loader) {
+        while (true) {
+            Entry e = entries.get(key);
+            if (e != null && e.covers(fields, full)) {
+                if (e.owner != owner) {
+                    sharedHits.incrementAndGet();
+                }
+                return e.promise;
+            }
+
+            // Loader reads from disk, and can wait for concurrency limiter. Claim the key
+            // with the placeholder first, and load outside of the map update, so that
+            // other keys are not blocked meanwhile.
+            PendingIssuePromise pending = new PendingIssuePromise();
+            Entry pe = new Entry(owner, pending, fields, full);
+            boolean claimed = (e == null) ? entries.putIfAbsent(key, pe) == null : entries.replace(key, e, pe);
+            if (!claimed) {
+                continue;
+            }
+
+            IssuePromise loaded;
+            try {
+                loaded = loader.get();
+            } catch (RuntimeException | Error t) {
+                pending.fail(t);
+                entries.remove(key, pe);
+                throw t;
+            }
+            pending.complete(loaded);
+            if (loaded instanceof ResolvedIssuePromise) {
+                entries.replace(key, pe, new Entry(owner, loaded, fields, full));
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Checks if cache has the suitable issue.
+     *
+     * @param owner the accessor that asks
+     * @param key issue key
+     * @param fields fields the issue should have
+     * @param full whether issue should have all metadata, e.g. changelog
+     * @return true, if cache has the suitable issue
+     */
+    boolean has(Issues owner, String key, Set<String> fields, boolean full) {
+        Entry e = entries.get(key);
+        if (e != null && e.covers(fields, full)) {
+            if (e.owner != owner) {
+                sharedHits.incrementAndGet();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Puts the issue promise in cache, unless cache already has the suitable issue.
+     *
+     * @param owner the accessor that puts
+     * @param key issue key
+     * @param promise issue promise
+     * @param fields fields the issue would have
+     * @param full whether issue would have all metadata, e.g. changelog
+     */
+    void put(Issues owner, String key, IssuePromise promise, Set<String> fields, boolean full) {
+        entries.compute(key, (k, e) -> {
+            if (e != null && e.covers(fields, full) && (e.resolved || !(promise instanceof ResolvedIssuePromise))) {
+                return e;
+            }
+            return new Entry(owner, promise, fields, full);
+        });
+    }
+
+    void put(Issues owner, String key, Issue issue, Set<String> fields, boolean full) {
+        put(owner, key, new ResolvedIssuePromise(issue), fields, full);
+    }
+
+    void countDiskLoad() {
+        diskLoads.incrementAndGet();
+    }
+
+    void countJiraLoad() {
+        jiraLoads.incrementAndGet();
+    }
+
+    /**
+     * Prints the cache stats.
+     *
+     * @param out stream to print to
+     */
+    public void printStats(PrintStream out) {
+        out.println("Issue cache: " + entries.size() + " issues, " +
+                sharedHits.get() + " hits shared between models, " +
+                diskLoads.get() + " loaded from disk, " +
+                jiraLoads.get() + " requested from JIRA");
+    }
+
+    /**
+     * Stands in for the issue promise while the loader makes it.
+     */
+    private static class PendingIssuePromise implements IssuePromise {
+        private final CompletableFuture<IssuePromise> loaded = new CompletableFuture<>();
+
+        void complete(IssuePromise p) {
+            loaded.complete(p);
+        }
+
+        void fail(Throwable t) {
+            loaded.completeExceptionally(t);
+        }
+
+        @Override
+        public Issue claim() {
+            IssuePromise p;
+            try {
+                p = loaded.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+            return p.claim();
+        }
+
+        @Override
+        public CompletableFuture<Issue> future() {
+            return loaded.thenCompose(IssuePromise::future);
+        }
+    }
+
+    private static class Entry {
+        final Issues owner;
+        final IssuePromise promise;
+        final Set<String> fields;
+        final boolean full;
+        final boolean resolved;
+
+        Entry(Issues owner, IssuePromise promise, Set<String> fields, boolean full) {
+            this.owner = owner;
+            this.promise = promise;
+            this.fields = fields;
+            this.full = full;
+            this.resolved = promise instanceof ResolvedIssuePromise;
+        }
+
+        boolean covers(Set<String> fs, boolean f) {
+            return (full || !f) && fields.containsAll(fs);
+        }
+    }
+
+}
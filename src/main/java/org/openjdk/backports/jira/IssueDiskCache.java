@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.api.domain.SearchResult;
+import com.atlassian.jira.rest.client.internal.json.IssueJsonParser;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.openjdk.backports.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the raw JSON for resolved issues on disk, so that subsequent runs
+ * do not have to download the issues that did not change since.
+ * Every issue is stored in its own file, with its "updated" timestamp
+ * within. The field names and schema are the same for all issues,
+ * and so they are stored once.
+ */
+public class IssueDiskCache {
+
+    // Past this age, it is cheaper to reload everything than to ask what changed.
+    private static final long MAX_AGE_DAYS = 14;
+
+    // Extra minutes to catch the clock skew between us and JIRA.
+    private static final long SLACK_MINUTES = 10;
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final File dir;
+    private final File lastRefreshFile;
+    private final File metaFile;
+
+    // Replaced wholesale on update, so that readers can use them without locking.
+    private volatile JSONObject names;
+    private volatile JSONObject schema;
+
+    public IssueDiskCache(File baseDir) {
+        this.dir = new File(baseDir, "issues");
+        this.lastRefreshFile = new File(dir, "last-refresh");
+        this.metaFile = new File(dir, "meta.json");
+
+        dir.mkdirs();
+
+        JSONObject meta = FileUtils.readJSON(metaFile);
+        if (meta == null) {
+            meta = new JSONObject();
+        }
+        JSONObject n = meta.optJSONObject("names");
+        JSONObject s = meta.optJSONObject("schema");
+        this.names = (n != null) ? n : new JSONObject();
+        this.schema = (s != null) ? s : new JSONObject();
+    }
+
+    /**
+     * Drops the issues that were updated in JIRA since the last refresh.
+     * Should be called once before the cache is used.
+     *
+     * @param rawCli JIRA client
+     * @param limiter request limiter
+     * @param out debug output
+     */
+    public void refresh(RawRestClient rawCli, ConcurrencyLimiter limiter, PrintStream out) {
+        long now = System.currentTimeMillis();
+        long last = readLastRefresh();
+
+        if (last <= 0 || (now - last) > TimeUnit.DAYS.toMillis(MAX_AGE_DAYS)) {
+            out.println("Issue cache is missing or too old, starting from scratch.");
+            purge();
+        } else {
+            // Relative dates are resolved by JIRA itself, which avoids timezone mismatches.
+            long minutes = TimeUnit.MILLISECONDS.toMinutes(now - last) + SLACK_MINUTES;
+            String query = "updated >= -" + minutes + "m";
+
+            out.print("Refreshing issue cache (" + query + "): ");
+            int total = 0;
+            int dropped = 0;
+            int cnt = 0;
+            do {
+                SearchResult r = new RetryableSearchPromise(limiter, rawCli, query, PAGE_SIZE, cnt, Issues.REQUIRED_FIELDS).claim();
+                total = r.getTotal();
+                int page = 0;
+                for (Issue i : r.getIssues()) {
+                    if (invalidate(i.getKey())) {
+                        dropped++;
+                    }
+                    page++;
+                }
+                if (page == 0) {
+                    break;
+                }
+                cnt += page;
+                out.print(".");
+                out.flush();
+            } while (cnt < total);
+            out.println(" " + total + " updated, " + dropped + " dropped");
+        }
+        out.println();
+
+        writeLastRefresh(now);
+    }
+
+    /**
+     * Loads the issue from cache.
+     *
+     * @param key issue key
+     * @param fields field IDs the issue should have
+     * @param full whether issue should have all metadata, e.g. changelog
+     * @return issue, or null if there is no suitable issue in cache
+     */
+    public Issue load(String key, Collection<String> fields, boolean full) {
+        File f = issueFile(key);
+        if (!f.exists()) {
+            return null;
+        }
+
+        JSONObject json = FileUtils.readJSON(f);
+        if (json == null) {
+            invalidate(key);
+            return null;
+        }
+
+        if (full && !json.has("changelog")) {
+            return null;
+        }
+
+        // Issue might have been stored with fewer fields than we need now.
+        JSONObject jsonFields = json.optJSONObject("fields");
+        if (jsonFields == null) {
+            return null;
+        }
+        for (String field : fields) {
+            if (!jsonFields.has(field)) {
+                return null;
+            }
+        }
+
+        try {
+            return new IssueJsonParser(names, schema).parse(json);
+        } catch (JSONException e) {
+            invalidate(key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the raw issue JSON, as received from JIRA. If issue JSON has only some
+     * fields, the fields that are already in cache are retained.
+     *
+     * @param key issue key
+     * @param json raw JSON
+     * @return parsed issue
+     * @throws JSONException if JSON is malformed
+     */
+    public Issue store(String key, JSONObject json) throws JSONException {
+        JSONObject n = (JSONObject) json.remove("names");
+        JSONObject s = (JSONObject) json.remove("schema");
+
+        synchronized (this) {
+            JSONObject newNames = merge(names, n);
+            JSONObject newSchema = merge(schema, s);
+            if (newNames != names || newSchema != schema) {
+                names = newNames;
+                schema = newSchema;
+                JSONObject meta = new JSONObject();
+                meta.put("names", newNames);
+                meta.put("schema", newSchema);
+                writeFile(metaFile, meta.toString());
+            }
+        }
+
+        Issue issue = new IssueJsonParser(n != null ? n : names, s != null ? s : schema).parse(json);
+        writeFile(issueFile(key), retainCached(key, json).toString());
+        return issue;
+    }
+
+    private JSONObject retainCached(String key, JSONObject json) throws JSONException {
+        JSONObject cached = FileUtils.readJSON(issueFile(key));
+        if (cached == null) {
+            return json;
+        }
+
+        // Anything stale would have been dropped on refresh, so cached fields are still current.
+        JSONObject res = new JSONObject(json.toString());
+        JSONObject cachedFields = cached.optJSONObject("fields");
+        JSONObject resFields = res.optJSONObject("fields");
+        if (cachedFields != null && resFields != null) {
+            Iterator<?> it = cachedFields.keys();
+            while (it.hasNext()) {
+                String k = it.next().toString();
+                if (!resFields.has(k)) {
+                    resFields.put(k, cachedFields.get(k));
+                }
+            }
+        }
+        if (!res.has("changelog") && cached.has("changelog")) {
+            res.put("changelog", cached.get("changelog"));
+        }
+        return res;
+    }
+
+    private static JSONObject merge(JSONObject dst, JSONObject src) throws JSONException {
+        if (src == null) {
+            return dst;
+        }
+        JSONObject res = dst;
+        Iterator<?> it = src.keys();
+        while (it.hasNext()) {
+            String k = it.next().toString();
+            if (!dst.has(k)) {
+                if (res == dst) {
+                    res = new JSONObject(dst.toString());
+                }
+                res.put(k, src.get(k));
+            }
+        }
+        return res;
+    }
+
+    private boolean invalidate(String key) {
+        return issueFile(key).delete();
+    }
+
+    private void purge() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".json") && !name.equals(metaFile.getName()));
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+    }
+
+    private File issueFile(String key) {
+        return new File(dir, key + ".json");
+    }
+
+    private long readLastRefresh() {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(lastRefreshFile.toPath()), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void writeLastRefresh(long time) {
+        writeFile(lastRefreshFile, String.valueOf(time));
+    }
+
+    private static void writeFile(File f, String contents) {
+        try {
+            FileUtils.writeAtomically(f, contents);
+        } catch (IOException e) {
+            // Cache is best-effort, do nothing.
+        }
+    }
+
+}
@@ -26,8 +26,19 @@ package org.openjdk.backports.jira;
 
 import com.atlassian.jira.rest.client.api.domain.Issue;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface IssuePromise {
 
     Issue claim();
 
+    /**
+     * Replies the future for the issue, to compose more actions with.
+     * The actions can be called from the HTTP callback threads, so the actions
+     * that request more issues should run asynchronously.
+     *
+     * @return future for the issue
+     */
+    CompletableFuture<Issue> future();
+
 }
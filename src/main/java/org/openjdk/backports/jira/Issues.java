@@ -24,8 +24,6 @@
  */
 package org.openjdk.backports.jira;
 
-import com.atlassian.jira.rest.client.api.IssueRestClient;
-import com.atlassian.jira.rest.client.api.SearchRestClient;
 import com.atlassian.jira.rest.client.api.domain.*;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
@@ -34,23 +32,61 @@ import org.openjdk.backports.StringUtils;
 
 import java.io.PrintStream;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 public class Issues {
 
-    private static final int PAGE_SIZE = 50;
+    // Print the progress dot every this many issues.
+    private static final int PROGRESS_STEP = 50;
+
+    // Number of issues to resolve with a single search request.
+    private static final int BATCH_SIZE = 50;
+
+    // Async actions that request more issues run here. Requests might wait for
+    // concurrency limiter, and that should never stall the HTTP callback threads,
+    // which complete the requests.
+    static final ExecutorService ASYNC = Executors.newFixedThreadPool(4, r -> {
+        Thread t = new Thread(r, "JIRA async");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // These fields are required for JRJC to parse the issue at all.
+    static final Set<String> REQUIRED_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "summary", "issuetype", "created", "updated", "project", "status")));
 
     private final PrintStream out;
-    private final SearchRestClient searchCli;
-    private final IssueRestClient issueCli;
-    private final ConcurrentMap<String, IssuePromise> issueCache;
+    private final Clients clients;
+    private final RawRestClient rawCli;
+    private final IssueDiskCache diskCache;
+    private final ConcurrencyLimiter limiter;
+    private final int pageSize;
+    private final IssueCache issueCache;
+    private final Collection<String> fieldNames;
+    private volatile Set<String> fields;
 
-    public Issues(PrintStream out, SearchRestClient searchCli, IssueRestClient issueCli) {
+    /**
+     * Creates the issue accessor that requests only the given fields from JIRA.
+     * The issues would have only these fields populated, along with the few fields
+     * that are always there, like summary and status.
+     *
+     * @param out debug output
+     * @param clients JIRA clients
+     * @param fieldNames field IDs, or field names for custom fields
+     */
+    public Issues(PrintStream out, Clients clients, Collection<String> fieldNames) {
         this.out = out;
-        this.searchCli = searchCli;
-        this.issueCli = issueCli;
-        this.issueCache = new ConcurrentHashMap<>();
+        this.clients = clients;
+        this.rawCli = clients.getRawRest();
+        this.diskCache = clients.getIssueDiskCache();
+        this.limiter = clients.getLimiter();
+        this.pageSize = clients.getPageSize();
+        this.issueCache = clients.getIssueCache();
+        this.fieldNames = fieldNames;
     }
 
     public IssuePromise getIssue(String key) {
@@ -58,217 +94,423 @@ public class Issues {
     }
 
     public IssuePromise getIssue(String key, boolean full) {
-        return issueCache.computeIfAbsent(key,
-                k -> new RetryableIssuePromise(this, issueCli, k, full));
+        return issueCache.get(this, key, getFields(), full, () -> {
+            if (diskCache != null) {
+                Issue issue = diskCache.load(key, getFields(), full);
+                if (issue != null) {
+                    issueCache.countDiskLoad();
+                    return new ResolvedIssuePromise(issue);
+                }
+            }
+            return newIssuePromise(key, full);
+        });
     }
 
-    void registerIssueCache(String key, Issue issue) {
-        issueCache.put(key, new ResolvedIssuePromise(issue));
+    IssuePromise newIssuePromise(String key, boolean full) {
+        issueCache.countJiraLoad();
+        return new RetryableIssuePromise(limiter, this, rawCli, diskCache, key, getFieldsParam(), full);
+    }
+
+    void registerIssueCache(String key, Issue issue, boolean full) {
+        issueCache.put(this, key, issue, getFields(), full);
+    }
+
+    /**
+     * Starts resolving the issues in batches, which takes much less requests
+     * than resolving them one by one. Subsequent {@link #getIssue(String, boolean)}
+     * calls would pick up the batched results.
+     *
+     * @param keys issue keys
+     * @param full load all metadata
+     */
+    public void prefetch(Collection<String> keys, boolean full) {
+        List<String> pending = new ArrayList<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            if (issueCache.has(this, key, getFields(), full)) {
+                continue;
+            }
+            if (diskCache != null) {
+                Issue issue = diskCache.load(key, getFields(), full);
+                if (issue != null) {
+                    issueCache.countDiskLoad();
+                    issueCache.put(this, key, issue, getFields(), full);
+                    continue;
+                }
+            }
+            pending.add(key);
+        }
+
+        for (int c = 0; c < pending.size(); c += BATCH_SIZE) {
+            List<String> chunk = pending.subList(c, Math.min(c + BATCH_SIZE, pending.size()));
+            RetryableBatchPromise batch = new RetryableBatchPromise(limiter, rawCli, diskCache, chunk, getFieldsParam(), full);
+            for (String key : chunk) {
+                issueCache.countJiraLoad();
+                issueCache.put(this, key, new BatchedIssuePromise(this, batch, key, full), getFields(), full);
+            }
+        }
+    }
+
+    private static List<String> keys(Iterable<Issue> issues) {
+        List<String> keys = new ArrayList<>();
+        for (Issue i : issues) {
+            keys.add(i.getKey());
+        }
+        return keys;
     }
 
     /**
      * Reply with basic issues for a given JIRA query.
-     * Basic issues have only a few populated fields, and are much faster to acquire.
+     * Basic issues have only the required fields populated, and are much faster to acquire.
      *
      * @param query query
      * @return list of issues
      */
     public List<Issue> getBasicIssues(String query) {
+        return drain(new PageIterator(searchPages(query, REQUIRED_FIELDS), i -> i));
+    }
+
+    private Set<String> getFields() {
+        Set<String> fs = fields;
+        if (fs == null) {
+            fs = new HashSet<>(REQUIRED_FIELDS);
+
+            // Custom fields are requested by ID, which we need to look up.
+            Map<String, String> ids = clients.getFieldIds();
+            for (String name : fieldNames) {
+                fs.add(ids.getOrDefault(name, name));
+            }
+            fields = fs;
+        }
+        return fs;
+    }
+
+    private String getFieldsParam() {
+        return String.join(",", getFields());
+    }
+
+    private List<CompletableFuture<SearchResult>> searchPages(String query, Set<String> fields) {
         out.println("JIRA Query:");
         out.println(WordUtils.wrap(query, StringUtils.DEFAULT_WIDTH));
         out.println();
 
-        SearchResult poll = new RetryableSearchPromise(searchCli, query, 1, 0).claim();
-        int total = poll.getTotal();
+        // First page tells the total number of issues, and then we can request
+        // the rest of the pages at once.
+        SearchResult first = new RetryableSearchPromise(limiter, rawCli, query, pageSize, 0, fields).claim();
+        int total = first.getTotal();
+
+        // JIRA can reply with the smaller page than requested, follow what it does.
+        int size = pageSize;
+        if (first.getMaxResults() > 0) {
+            size = Math.min(size, first.getMaxResults());
+        }
 
         out.print("Acquiring pages (" + total + " total): ");
-        List<RetryableSearchPromise> searchPromises = new ArrayList<>();
-        for (int cnt = 0; cnt < total; cnt += PAGE_SIZE) {
-            searchPromises.add(new RetryableSearchPromise(searchCli, query, PAGE_SIZE, cnt));
+        List<CompletableFuture<SearchResult>> pages = new ArrayList<>();
+        pages.add(CompletableFuture.completedFuture(first));
+        out.print(".");
+        for (int cnt = size; cnt < total; cnt += size) {
+            pages.add(new RetryableSearchPromise(limiter, rawCli, query, size, cnt, fields).future());
             out.print(".");
             out.flush();
         }
         out.println(" done");
 
-        out.print("Loading issues (" + total + " total): ");
-        List<Issue> issues = new ArrayList<>();
-        for (RetryableSearchPromise sp : searchPromises) {
-            for (Issue i : sp.claim().getIssues()) {
-                issues.add(i);
+        out.println("Loading issues (" + total + " total)");
+        return pages;
+    }
+
+    /**
+     * Streams the issues for a given JIRA query, that have all the fields this
+     * accessor was asked for. Issues are replied as soon as their pages arrive,
+     * so that callers can process the first issues while the later pages are
+     * still loading.
+     *
+     * @param query query
+     * @param full load all metadata
+     * @return issues iterator
+     */
+    public Iterator<Issue> streamIssues(String query, boolean full) {
+        if (full || diskCache != null) {
+            // Search cannot give us the changelogs, resolve them. With disk cache,
+            // most issues would come from it, no need to search for their fields.
+            // Start resolving the issues as soon as the page arrives.
+            List<CompletableFuture<SearchResult>> pages = new ArrayList<>();
+            for (CompletableFuture<SearchResult> page : searchPages(query, REQUIRED_FIELDS)) {
+                pages.add(page.thenApplyAsync(r -> {
+                    prefetch(keys(r.getIssues()), full);
+                    return r;
+                }, ASYNC));
             }
-            out.print(".");
-            out.flush();
+            return new PageIterator(pages, i -> getIssue(i.getKey(), full).claim());
+        } else {
+            // Search with the fields we need, then no additional resolution is needed.
+            return new PageIterator(searchPages(query, getFields()), i -> {
+                issueCache.countJiraLoad();
+                registerIssueCache(i.getKey(), i, false);
+                return i;
+            });
         }
-        out.println(" done");
-
-        return issues;
     }
 
     /**
      * Reply with resolved issues for a given JIRA query.
-     * Resolved issues have all their fields filled in.
+     * Resolved issues have all fields this accessor was asked for.
      *
      * @param query query
      * @param full load all metadata
      * @return list of issues
      */
     public List<Issue> getIssues(String query, boolean full) {
-        List<Issue> basicIssues = getBasicIssues(query);
-        int total = basicIssues.size();
+        return drain(streamIssues(query, full));
+    }
 
-        List<IssuePromise> batch = new ArrayList<>();
-        for (Issue i : basicIssues) {
-            batch.add(getIssue(i.getKey(), full));
-        }
+    private List<Issue> getModelIssues(String query) {
+        return getIssues(query, false);
+    }
 
-        int count = 0;
-        out.print("Resolving issues (" + total + " total): ");
+    private static List<Issue> drain(Iterator<Issue> it) {
         List<Issue> issues = new ArrayList<>();
-        for (IssuePromise ip : batch) {
-            issues.add(ip.claim());
-            if ((++count % PAGE_SIZE) == 0) {
-                out.print(".");
-                out.flush();
+        while (it.hasNext()) {
+            issues.add(it.next());
+        }
+        return issues;
+    }
+
+    /**
+     * Walks the search pages in order, claiming the pages only when needed.
+     * Consumed pages are dropped, so that only the issues the caller retains
+     * stay in memory.
+     */
+    private class PageIterator implements Iterator<Issue> {
+        private final List<CompletableFuture<SearchResult>> pages;
+        private final Function<Issue, Issue> mapper;
+        private int page;
+        private Iterator<Issue> cur;
+
+        PageIterator(List<CompletableFuture<SearchResult>> pages, Function<Issue, Issue> mapper) {
+            this.pages = pages;
+            this.mapper = mapper;
+            this.cur = Collections.emptyIterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!cur.hasNext()) {
+                if (page >= pages.size()) {
+                    return false;
+                }
+                CompletableFuture<SearchResult> p = pages.set(page++, null);
+                cur = join(p).getIssues().iterator();
             }
+            return true;
         }
-        out.println(" done");
 
-        return issues;
+        @Override
+        public Issue next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return mapper.apply(cur.next());
+        }
     }
 
     public IssuePromise getParent(Issue start) {
+        String key = getParentKey(start);
+        return (key != null) ? getIssue(key) : null;
+    }
+
+    private CompletableFuture<Issue> getParentOrSelf(Issue start) {
+        IssuePromise parent = getParent(start);
+        return (parent != null) ? parent.future() : CompletableFuture.completedFuture(start);
+    }
+
+    private static String getParentKey(Issue start) {
         for (IssueLink link : start.getIssueLinks()) {
             IssueLinkType type = link.getIssueLinkType();
             if (type.getName().equals("Backport") && type.getDirection() == IssueLinkType.Direction.INBOUND) {
-                return getIssue(link.getTargetIssueKey());
+                return link.getTargetIssueKey();
             }
         }
         return null;
     }
 
-    /**
-     * Reply with parent issues for a given JIRA query.
-     * For every issue that has a parent, its parent is returned. If issue has no
-     * parents, the issue itself is replied.
-     *
-     * @param query query
-     * @return list issues
-     */
-    public List<Issue> getParentIssues(String query) {
-        List<Issue> basicIssues = getBasicIssues(query);
-        int totalSize = basicIssues.size();
-
-        List<IssuePromise> basicPromises = new ArrayList<>();
-        for (Issue i : basicIssues) {
-            basicPromises.add(getIssue(i.getKey()));
+    private static List<String> getParentKeys(Collection<Issue> issues) {
+        List<String> keys = new ArrayList<>();
+        for (Issue i : issues) {
+            String key = getParentKey(i);
+            if (key != null) {
+                keys.add(key);
+            }
         }
+        return keys;
+    }
 
-        int c1 = 0;
-        out.print("Resolving issues (" + totalSize + " total): ");
-        List<IssuePromise> parentPromises = new ArrayList<>();
-        for (IssuePromise ip : basicPromises) {
-            IssuePromise parent = getParent(ip.claim());
-            parentPromises.add(parent != null ? parent : ip);
-            if ((++c1 % PAGE_SIZE) == 0) {
-                out.print(".");
-                out.flush();
+    private static List<String> getBackportKeys(Issue parent) {
+        List<String> keys = new ArrayList<>();
+        if (parent.getIssueLinks() != null) {
+            for (IssueLink link : parent.getIssueLinks()) {
+                if (link.getIssueLinkType().getName().equals("Backport")) {
+                    keys.add(link.getTargetIssueKey());
+                }
             }
         }
-        out.println(" done");
+        return keys;
+    }
 
-        int c2 = 0;
-        out.print("Resolving parents (" + totalSize + " total): ");
-        List<Issue> issues = new ArrayList<>();
-        for (IssuePromise ip : parentPromises) {
-            issues.add(ip.claim());
-            if ((++c2 % PAGE_SIZE) == 0) {
-                out.print(".");
-                out.flush();
+    private static List<String> getRelatedKeys(Issue parent) {
+        List<String> keys = new ArrayList<>();
+        if (parent.getIssueLinks() != null) {
+            for (IssueLink link : parent.getIssueLinks()) {
+                keys.add(link.getTargetIssueKey());
             }
         }
-        out.println(" done");
+        if (parent.getSubtasks() != null) {
+            for (Subtask subtask : parent.getSubtasks()) {
+                keys.add(subtask.getIssueKey());
+            }
+        }
+        return keys;
+    }
 
-        return issues;
+    private CompletableFuture<List<Issue>> getIssuesAsync(List<String> keys) {
+        List<CompletableFuture<Issue>> futures = new ArrayList<>();
+        for (String key : keys) {
+            futures.add(getIssue(key).future());
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            List<Issue> issues = new ArrayList<>();
+            for (CompletableFuture<Issue> f : futures) {
+                issues.add(f.join());
+            }
+            return issues;
+        });
     }
 
-    private Multimap<Issue, Issue> getIssuesWithBackports(String query, boolean includeOnly) {
-        List<Issue> parents = getParentIssues(query);
-        int totalSize = parents.size();
-
-        Multimap<Issue, IssuePromise> promises = HashMultimap.create();
-        for (Issue parent : parents) {
-            if (parent.getIssueLinks() != null) {
-                for (IssueLink link : parent.getIssueLinks()) {
-                    if (link.getIssueLinkType().getName().equals("Backport")) {
-                        String linkKey = link.getTargetIssueKey();
-                        promises.put(parent, getIssue(linkKey));
-                    }
-                }
+    private static <T> T join(CompletableFuture<T> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw e;
         }
+    }
 
-        int c1 = 0;
-        out.print("Resolving backports (" + totalSize + " total): ");
-        Multimap<Issue, Issue> result = HashMultimap.create();
-        for (Issue parent : parents) {
-            for (IssuePromise ip : promises.get(parent)) {
-                result.put(parent, ip.claim());
-            }
-            if ((++c1 % PAGE_SIZE) == 0) {
+    private List<Issue> joinAll(String label, List<CompletableFuture<Issue>> futures) {
+        int count = 0;
+        out.print(label + " (" + futures.size() + " total): ");
+        List<Issue> issues = new ArrayList<>();
+        for (CompletableFuture<Issue> f : futures) {
+            issues.add(join(f));
+            if ((++count % PROGRESS_STEP) == 0) {
                 out.print(".");
                 out.flush();
             }
         }
-
-        if (!includeOnly) {
-            // Make sure that key mapping exists even for issues without backports.
-            for (Issue parent : parents) {
-                result.put(parent, parent);
-            }
-        }
-
         out.println(" done");
+        return issues;
+    }
 
-        return result;
+    /**
+     * Reply with parent issues for a given JIRA query.
+     * For every issue that has a parent, its parent is returned. If issue has no
+     * parents, the issue itself is replied.
+     *
+     * @param query query
+     * @return list issues
+     */
+    public List<Issue> getParentIssues(String query) {
+        return getParentIssues(getModelIssues(query));
     }
 
-    public Multimap<Issue, Issue> getIssuesWithBackportsOnly(String query) {
-        return getIssuesWithBackports(query, true);
+    /**
+     * Reply with parent issues for given issues.
+     * For every issue that has a parent, its parent is returned. If issue has no
+     * parents, the issue itself is replied.
+     *
+     * @param issues issues
+     * @return list issues
+     */
+    public List<Issue> getParentIssues(List<Issue> issues) {
+        prefetch(getParentKeys(issues), false);
+
+        List<CompletableFuture<Issue>> parents = new ArrayList<>();
+        for (Issue issue : issues) {
+            parents.add(getParentOrSelf(issue));
+        }
+        return joinAll("Resolving parents", parents);
     }
 
-    public Multimap<Issue, Issue> getIssuesWithBackportsFull(String query) {
-        Multimap<Issue, Issue> res = getIssuesWithBackports(query, false);
-
-        // Resolve the related issues and subtasks
-        Multimap<Issue, IssuePromise> promises = HashMultimap.create();
-        for (Issue parent : res.keySet()) {
-            if (parent.getIssueLinks() != null) {
-                for (IssueLink link : parent.getIssueLinks()) {
-                    promises.put(parent, getIssue(link.getTargetIssueKey()));
-                }
+    private Multimap<Issue, Issue> getIssuesWithBackports(String query, boolean includeOnly, boolean withRelated) {
+        List<Issue> found = getModelIssues(query);
+
+        prefetch(getParentKeys(found), false);
+
+        // Instead of resolving all parents, and only then all backports, compose
+        // the resolution chain for every issue. Chains go in chunks, so that
+        // backports are still requested in batches: as soon as parents for the
+        // chunk arrive, their backports are requested, while other parents
+        // are still in flight.
+        List<CompletableFuture<Map.Entry<Issue, List<Issue>>>> chains = new ArrayList<>();
+        for (int c = 0; c < found.size(); c += BATCH_SIZE) {
+            List<CompletableFuture<Issue>> parents = new ArrayList<>();
+            for (Issue issue : found.subList(c, Math.min(c + BATCH_SIZE, found.size()))) {
+                parents.add(getParentOrSelf(issue));
             }
-            if (parent.getSubtasks() != null) {
-                for (Subtask subtask : parent.getSubtasks()) {
-                    promises.put(parent, getIssue(subtask.getIssueKey()));
-                }
+
+            CompletableFuture<Void> prefetched = CompletableFuture.allOf(parents.toArray(new CompletableFuture<?>[0]))
+                    .thenRunAsync(() -> {
+                        List<String> keys = new ArrayList<>();
+                        for (CompletableFuture<Issue> pf : parents) {
+                            keys.addAll(getBackportKeys(pf.join()));
+                            if (withRelated) {
+                                keys.addAll(getRelatedKeys(pf.join()));
+                            }
+                        }
+                        prefetch(keys, false);
+                    }, ASYNC);
+
+            for (CompletableFuture<Issue> pf : parents) {
+                chains.add(prefetched.thenComposeAsync(v -> {
+                    Issue parent = pf.join();
+                    CompletableFuture<List<Issue>> backports = getIssuesAsync(getBackportKeys(parent));
+                    if (withRelated) {
+                        // Related issues are not in the result, but they need to be resolved
+                        // for release notes lookups later.
+                        backports = backports.thenCombine(getIssuesAsync(getRelatedKeys(parent)), (b, r) -> b);
+                    }
+                    return backports.thenApply(b -> new AbstractMap.SimpleImmutableEntry<>(parent, b));
+                }, ASYNC));
             }
         }
 
         int c1 = 0;
-        out.print("Resolving related/subtasks (" + res.keySet().size() + " total): ");
+        out.print("Resolving backports (" + chains.size() + " total): ");
         Multimap<Issue, Issue> result = HashMultimap.create();
-        for (Issue parent : res.keySet()) {
-            for (IssuePromise ip : promises.get(parent)) {
-                result.put(parent, ip.claim());
+        for (CompletableFuture<Map.Entry<Issue, List<Issue>>> chain : chains) {
+            Map.Entry<Issue, List<Issue>> e = join(chain);
+            result.putAll(e.getKey(), e.getValue());
+            if (!includeOnly) {
+                // Make sure that key mapping exists even for issues without backports.
+                result.put(e.getKey(), e.getKey());
             }
-            if ((++c1 % PAGE_SIZE) == 0) {
+            if ((++c1 % PROGRESS_STEP) == 0) {
                 out.print(".");
                 out.flush();
             }
         }
         out.println(" done");
 
-        return res;
+        return result;
+    }
+
+    public Multimap<Issue, Issue> getIssuesWithBackportsOnly(String query) {
+        return getIssuesWithBackports(query, true, false);
+    }
+
+    public Multimap<Issue, Issue> getIssuesWithBackportsFull(String query) {
+        return getIssuesWithBackports(query, false, true);
     }
 
     public Collection<Issue> getReleaseNotes(Issue start) {
@@ -302,36 +544,4 @@ public class Issues {
         return releaseNotes;
     }
 
-    public List<Issue> getParentIssues(List<Issue> basics) {
-        int c1 = 0;
-        out.print("Resolving issues (" + basics.size() + " total): ");
-        List<IssuePromise> parentPromises = new ArrayList<>();
-        for (Issue ip : basics) {
-            IssuePromise parent = getParent(ip);
-            parentPromises.add(parent);
-            if ((++c1 % PAGE_SIZE) == 0) {
-                out.print(".");
-                out.flush();
-            }
-        }
-        out.println(" done");
-
-        out.print("Resolving parents (" + basics.size() + " total): ");
-        List<Issue> issues = new ArrayList<>();
-        for (int i = 0; i < parentPromises.size(); i++) {
-            IssuePromise ip = parentPromises.get(i);
-            if (ip != null) {
-                issues.add(ip.claim());
-            } else {
-                issues.add(basics.get(i));
-            }
-            if ((i % PAGE_SIZE) == 0) {
-                out.print(".");
-                out.flush();
-            }
-        }
-        out.println(" done");
-        return issues;
-    }
-
 }
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Parsed JDK version. Reports look at the same few hundred version names over and over,
+ * so every distinct version name is parsed once, and the result is interned.
+ */
+public final class JdkVersion {
+
+    private static final ConcurrentMap<String, JdkVersion> CACHE = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int major;
+    private final int minor;
+    private final int majorShenandoah;
+    private final boolean oracle;
+    private final boolean maintenance;
+    private final boolean shared;
+
+    // Comparisons ignore vendor suffixes and prefixes.
+    private final int cmpMajor;
+    private final int cmpMinor;
+
+    private JdkVersion(String name) {
+        this.name = name;
+        this.major = parseMajor(name);
+        this.minor = parseMinor(name);
+        this.majorShenandoah = parseMajorShenandoah(name);
+
+        // These are 8u MR releases:
+        //   MR1-MR2: 8u40 (technically the part of usual JDK 8 release chain, so excluded here)
+        //   MR3: 8u41
+        //   MR4: 8u42
+        this.maintenance = (major == 8) && (41 <= minor && minor <= 42);
+
+        this.oracle = (major >= 11 && name.endsWith("-oracle")) ||
+                (major == 8 && minor >= 211 && !name.startsWith("openjdk"));
+
+        this.shared = !oracle &&
+                ((major >= 11 && minor <= 2) || (major == 8 && minor < 211));
+
+        String stripped = Versions.stripVendor(name);
+        this.cmpMajor = parseMajor(stripped);
+        this.cmpMinor = parseMinor(stripped);
+    }
+
+    public static JdkVersion of(String name) {
+        JdkVersion v = CACHE.get(name);
+        if (v == null) {
+            v = CACHE.computeIfAbsent(name, JdkVersion::new);
+        }
+        return v;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMajor() {
+        return major;
+    }
+
+    public int getMinor() {
+        return minor;
+    }
+
+    public int getMajorShenandoah() {
+        return majorShenandoah;
+    }
+
+    public boolean isOracle() {
+        return oracle;
+    }
+
+    public boolean isMaintenanceRelease() {
+        return maintenance;
+    }
+
+    public boolean isOpen() {
+        return !oracle && !maintenance;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Compares the versions, disregarding the vendor. Adjacent 8u releases
+     * are considered the same, so this is not a total order.
+     *
+     * @param left left version
+     * @param right right version
+     * @return negative, zero, or positive, like comparators do
+     */
+    public static int compare(JdkVersion left, JdkVersion right) {
+        int major = Integer.compare(left.cmpMajor, right.cmpMajor);
+        if (major != 0) {
+            return major;
+        }
+
+        int minor = Integer.compare(left.cmpMinor, right.cmpMinor);
+        if (minor != 0) {
+            if (left.cmpMajor == 8 && right.cmpMajor == 8) {
+                // Special case: adjacent 8u releases
+                if (Math.abs(left.cmpMinor - right.cmpMinor) > 1) {
+                    return minor;
+                }
+            } else {
+                return minor;
+            }
+        }
+
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static int parseMajor(String version) {
+        if (version.equals("solaris_10u7")) {
+            // Special-case odd issue: https://bugs.openjdk.org/browse/JDK-6913047
+            return 0;
+        }
+
+        if (version.startsWith("hs")) {
+            // Special case odd issues that reference Hotspot versions:
+            //  https://bugs.openjdk.org/browse/JDK-8035493
+            return 0;
+        }
+
+        if (version.startsWith("emb-")) {
+            // Special case odd issues that reference embedded versions:
+            //  https://bugs.openjdk.org/browse/JDK-8042557
+            return 0;
+        }
+
+        if (version.equals("8-aarch64")) {
+            // Special case odd issues that reference old pre-integration 8-aarch64 versions:
+            //  https://bugs.openjdk.org/browse/JDK-8236179
+            return 0;
+        }
+
+        version = version.toLowerCase();
+
+        if (version.startsWith("openjdk")) {
+            version = version.substring("openjdk".length());
+        }
+
+        if (version.endsWith("shenandoah")) {
+            return -1;
+        }
+
+        if (version.endsWith("-pool")) {
+            int dashIdx = version.lastIndexOf("-");
+            return toInt(version.substring(0, dashIdx));
+        }
+
+        int dotIdx = version.indexOf(".");
+        if (dotIdx != -1) {
+            return toInt(version.substring(0, dotIdx));
+        }
+        int uIdx = version.indexOf("u");
+        if (uIdx != -1) {
+            return toInt(version.substring(0, uIdx));
+        }
+
+        return toInt(version);
+    }
+
+    private static int parseMinor(String version) {
+        if (version.startsWith("openjdk7")) {
+            return -1;
+        }
+
+        int major = parseMajor(version);
+
+        if (major <= 8) {
+            int uIdx = version.indexOf("u");
+            if (uIdx != -1) {
+                if (uIdx + 1 == version.length()) {
+                    return 0;
+                }
+                return toInt(version.substring(uIdx + 1));
+            }
+        }
+
+        if (major >= 11) {
+            String sub = Versions.stripVendor(version);
+            int dotIdx = sub.lastIndexOf(".");
+            if (dotIdx + 1 == version.length()) {
+                return 0;
+            }
+            if (dotIdx != -1) {
+                String[] args = sub.split("\\.");
+                if (args.length < 3) {
+                    return -1;
+                }
+                return toInt(args[2]);
+            }
+        }
+
+        return -1;
+    }
+
+    private static int parseMajorShenandoah(String version) {
+        if (!version.endsWith("-shenandoah")) {
+            return -1;
+        }
+
+        version = version.substring(0, version.indexOf("shenandoah") - 1);
+        return toInt(version);
+    }
+
+    /**
+     * Parses the integer, or returns -1 if string is not an integer. Most
+     * of the non-integers are caught without throwing the exception.
+     */
+    private static int toInt(String s) {
+        int start = (s.startsWith("-") || s.startsWith("+")) ? 1 : 0;
+        if (s.length() <= start) {
+            return -1;
+        }
+        for (int i = start; i < s.length(); i++) {
+            if (Character.digit(s.charAt(i), 10) < 0) {
+                return -1;
+            }
+        }
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            // Overflow
+            return -1;
+        }
+    }
+}
@@ -24,67 +24,33 @@
  */
 package org.openjdk.backports.jira;
 
-import org.openjdk.backports.StringUtils;
-
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class Parsers {
 
-    static final Pattern OPENJDK_USER_ID = Pattern.compile("(.*)<(.*)@openjdk.org>");
-    static final Pattern GENERIC_USER_ID = Pattern.compile("(.*)<(.*)>");
-
     public static Optional<String> parseURL(String s) {
-        for (String l : StringUtils.lines(s)) {
-            if (l.startsWith("URL")) {
-                return Optional.of(l.replaceFirst("URL:", "").trim());
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(PushComment.parse(s).getURL());
     }
 
     public static Optional<String> parseUser(String s) {
-        for (String l : StringUtils.lines(s)) {
-            if (l.startsWith("User")) {
-                return Optional.of(l.replaceFirst("User:", "").trim());
-            }
-            if (l.startsWith("Author")) {
-                Matcher m1 = OPENJDK_USER_ID.matcher(l);
-                if (m1.matches()) {
-                    return Optional.of(m1.group(2));
-                }
-                Matcher m2 = GENERIC_USER_ID.matcher(l);
-                if (m2.matches()) {
-                    return Optional.of(m2.group(2));
-                }
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(PushComment.parse(s).getUser());
     }
 
     public static Optional<Long> parseDaysAgo(String s) {
-        for (String l : StringUtils.lines(s)) {
-            if (l.startsWith("Date")) {
-                String d = l.replaceFirst("Date:", "").trim();
-                final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss Z");
-                return Optional.of(ChronoUnit.DAYS.between(LocalDate.parse(d, formatter), LocalDate.now()));
-            }
+        LocalDateTime date = PushComment.parse(s).getDateTime();
+        if (date != null) {
+            return Optional.of(ChronoUnit.DAYS.between(date.toLocalDate(), LocalDate.now()));
         }
         return Optional.empty();
     }
 
     public static Optional<Long> parseSecondsAgo(String s) {
-        for (String l : StringUtils.lines(s)) {
-            if (l.startsWith("Date")) {
-                String d = l.replaceFirst("Date:", "").trim();
-                final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss Z");
-                return Optional.of(ChronoUnit.SECONDS.between(LocalDateTime.parse(d, formatter), LocalDateTime.now()));
-            }
+        LocalDateTime date = PushComment.parse(s).getDateTime();
+        if (date != null) {
+            return Optional.of(ChronoUnit.SECONDS.between(date, LocalDateTime.now()));
         }
         return Optional.empty();
     }
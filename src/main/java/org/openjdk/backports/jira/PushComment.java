@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Push fields of a single bot comment. The comment body is scanned once,
+ * line by line, without splitting it into the line strings first. Only
+ * the first line of every kind counts.
+ */
+public final class PushComment {
+
+    static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss Z");
+
+    private static final Pattern OPENJDK_USER_ID = Pattern.compile("(.*)<(.*)@openjdk.org>");
+    private static final Pattern GENERIC_USER_ID = Pattern.compile("(.*)<(.*)>");
+
+    private final String url;
+    private final String user;
+    private final String date;
+
+    private PushComment(String url, String user, String date) {
+        this.url = url;
+        this.user = user;
+        this.date = date;
+    }
+
+    public static PushComment parse(String s) {
+        String url = null;
+        String user = null;
+        String date = null;
+
+        int len = s.length();
+        int start = 0;
+        while (start < len && (url == null || user == null || date == null)) {
+            int end = start;
+            while (end < len) {
+                char c = s.charAt(end);
+                if (c == '\n' || c == '\r') {
+                    break;
+                }
+                end++;
+            }
+
+            if (url == null && s.startsWith("URL", start)) {
+                url = value(s, start, end, "URL:");
+            } else if (user == null && s.startsWith("User", start)) {
+                user = value(s, start, end, "User:");
+            } else if (user == null && s.startsWith("Author", start)) {
+                user = author(s.substring(start, end));
+            } else if (date == null && s.startsWith("Date", start)) {
+                date = value(s, start, end, "Date:");
+            }
+
+            // Line terminators are the same as for BufferedReader: \n, \r, or \r\n.
+            start = end + 1;
+            if (end + 1 < len && s.charAt(end) == '\r' && s.charAt(end + 1) == '\n') {
+                start++;
+            }
+        }
+
+        return new PushComment(url, user, date);
+    }
+
+    /**
+     * @return push URL, or null if there is none
+     */
+    public String getURL() {
+        return url;
+    }
+
+    /**
+     * @return push user, or null if there is none
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * @return push date text, or null if there is none
+     */
+    public String getDate() {
+        return date;
+    }
+
+    /**
+     * @return push date, or null if there is none
+     * @throws java.time.format.DateTimeParseException if date is malformed
+     */
+    public LocalDateTime getDateTime() {
+        return (date != null) ? LocalDateTime.parse(date, DATE_FORMAT) : null;
+    }
+
+    // Line without the first occurrence of the tag, trimmed.
+    private static String value(String s, int start, int end, String tag) {
+        if (s.startsWith(tag, start)) {
+            return trim(s, start + tag.length(), end);
+        }
+        String line = s.substring(start, end);
+        int idx = line.indexOf(tag);
+        if (idx == -1) {
+            return line.trim();
+        }
+        return (line.substring(0, idx) + line.substring(idx + tag.length())).trim();
+    }
+
+    private static String trim(String s, int start, int end) {
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        while (start < end && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return s.substring(start, end);
+    }
+
+    private static String author(String line) {
+        Matcher m1 = OPENJDK_USER_ID.matcher(line);
+        if (m1.matches()) {
+            return m1.group(2);
+        }
+        Matcher m2 = GENERIC_USER_ID.matcher(line);
+        if (m2.matches()) {
+            return m2.group(2);
+        }
+        return null;
+    }
+}
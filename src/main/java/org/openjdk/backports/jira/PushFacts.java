@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import com.atlassian.jira.rest.client.api.domain.Comment;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Push URL, user and date for the issue, parsed from the bot push comments.
+ * Every fact comes from the first bot comment that has it, as if bot comments were
+ * searched for each fact separately. Reports ask for these facts many times,
+ * e.g. when sorting pushes, so they are parsed once per issue.
+ */
+public class PushFacts {
+
+    // Keyed by the issue instance, so the facts live only as long as the issue itself,
+    // which is held by the issue cache of the run. Newer versions of the issue are
+    // different instances, and get their own facts.
+    private static final Cache<Issue, PushFacts> CACHE = CacheBuilder.newBuilder().weakKeys().build();
+
+    private final String url;
+    private final String user;
+    private final LocalDateTime date;
+
+    private PushFacts(String url, String user, LocalDateTime date) {
+        this.url = url;
+        this.user = user;
+        this.date = date;
+    }
+
+    public static PushFacts of(Issue issue) {
+        PushFacts facts = CACHE.getIfPresent(issue);
+        if (facts == null) {
+            // Racing threads would parse the same facts, no need to block them.
+            facts = parse(issue);
+            CACHE.put(issue, facts);
+        }
+        return facts;
+    }
+
+    private static PushFacts parse(Issue issue) {
+        String url = null;
+        String user = null;
+        LocalDateTime date = null;
+
+        for (Comment c : issue.getComments()) {
+            if (!isBotPushComment(c)) {
+                continue;
+            }
+
+            PushComment pc = PushComment.parse(c.getBody());
+            if (url == null) {
+                url = pc.getURL();
+            }
+            if (user == null) {
+                user = pc.getUser();
+            }
+            if (date == null) {
+                try {
+                    date = pc.getDateTime();
+                } catch (DateTimeParseException e) {
+                    // Malformed dates are treated as missing.
+                }
+            }
+            if (url != null && user != null && date != null) {
+                break;
+            }
+        }
+
+        return new PushFacts(url, user, date);
+    }
+
+    private static boolean isBotPushComment(Comment c) {
+        String name = c.getAuthor().getName();
+        if (!name.equals("hgupdate") &&
+            !name.equals("roboduke") &&
+            !name.equals("dukebot")) {
+            return false;
+        }
+        if (c.getBody().contains("A pull request was submitted for review.")) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return push URL, or null if there is none
+     */
+    public String getURL() {
+        return url;
+    }
+
+    /**
+     * @return push user, or null if there is none
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * @return push date, or null if there is none
+     */
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public long getDaysAgo() {
+        return (date != null) ? ChronoUnit.DAYS.between(date.toLocalDate(), LocalDate.now()) : -1;
+    }
+
+    public long getSecondsAgo() {
+        return (date != null) ? ChronoUnit.SECONDS.between(date, LocalDateTime.now()) : -1;
+    }
+}
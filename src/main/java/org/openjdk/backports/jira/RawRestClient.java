@@ -24,52 +24,255 @@
  */
 package org.openjdk.backports.jira;
 
-import com.atlassian.httpclient.api.HttpClient;
-import com.atlassian.httpclient.api.Response;
-import com.atlassian.httpclient.api.ResponsePromise;
-import org.json.JSONArray;
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.internal.async.DisposableHttpClient;
+import io.atlassian.util.concurrent.Promise;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 
 import javax.ws.rs.core.UriBuilder;
-import java.io.*;
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
-public class RawRestClient {
+/**
+ * Does all the requests to JIRA. Keeping all traffic here allows to record it,
+ * and replay it later without the network.
+ */
+public class RawRestClient implements AutoCloseable {
     private final URI baseUri;
-    private final HttpClient httpClient;
+    private final DisposableHttpClient httpClient;
+    private final TrafficArchive archive;
 
-    public RawRestClient(URI uri, HttpClient httpClient) {
+    public RawRestClient(URI uri, DisposableHttpClient httpClient, TrafficArchive archive) {
         this.baseUri = uri;
         this.httpClient = httpClient;
+        this.archive = archive;
     }
 
-    public Collection<String> remoteLinks(String key) {
+    /**
+     * Requests the raw remote links JSON for the issue.
+     *
+     * @param key issue key
+     * @return promise for JSON text
+     */
+    public Promise<String> remoteLinks(String key) {
         URI resolve = UriBuilder.fromUri(baseUri).path("/rest/api/latest/issue/" + key + "/remotelink").build(new Object[0]);
-        ResponsePromise p = httpClient.newRequest(resolve).get();
-        Response r = p.claim();
+        return getJSON(resolve);
+    }
+
+    /**
+     * Requests the raw issue JSON, including field names and schema.
+     *
+     * @param key issue key
+     * @param fields comma-separated fields to request
+     * @param full also request changelog
+     * @return promise for JSON text
+     */
+    public Promise<String> issue(String key, String fields, boolean full) {
+        return getJSON(issueURI(key, fields, full));
+    }
 
-        if (!r.isSuccessful()) {
-            return Collections.emptyList();
+    /**
+     * Requests the raw search results JSON for the issues with given keys.
+     * Which issues end up in the same batch depends on timing, so the archive
+     * keeps the batched issues as if they were requested one by one, and
+     * replays the batch from them.
+     *
+     * @param keys issue keys
+     * @param fields comma-separated fields to request
+     * @param full also request changelog
+     * @return promise for JSON text
+     */
+    public Promise<String> batch(List<String> keys, String fields, boolean full) {
+        if (archive != null && archive.isReplay()) {
+            List<String> requests = new ArrayList<>();
+            for (String key : keys) {
+                requests.add(request(issueURI(key, fields, full)));
+            }
+            return archive.replayAll(requests).map(RawRestClient::batchJSON);
+        }
+        URI uri = searchURI("key in (" + String.join(",", keys) + ")", keys.size(), 0, fields, full);
+        Promise<String> p = fetch(uri, null);
+        if (archive == null) {
+            return p;
         }
+        return p.map(s -> {
+            recordBatch(s, fields, full);
+            return s;
+        });
+    }
+
+    /**
+     * Requests the raw search results JSON, including field names and schema.
+     *
+     * @param jql query
+     * @param maxResults max results in this page
+     * @param startAt index of first result in this page
+     * @param fields comma-separated fields to request
+     * @param full also request changelog
+     * @return promise for JSON text
+     */
+    public Promise<String> search(String jql, int maxResults, int startAt, String fields, boolean full) {
+        return getJSON(searchURI(jql, maxResults, startAt, fields, full));
+    }
+
+    /**
+     * Requests the raw JSON for all fields known to JIRA.
+     *
+     * @return promise for JSON text
+     */
+    public Promise<String> fields() {
+        URI resolve = UriBuilder.fromUri(baseUri).path("/rest/api/latest/field").build(new Object[0]);
+        return getJSON(resolve);
+    }
 
-        try (InputStream is = r.getEntityStream();
-             InputStreamReader isr = new InputStreamReader(is);
-             BufferedReader br = new BufferedReader(isr)) {
-
-            Collection<String> links = new ArrayList<>();
-            String line;
-            while ((line = br.readLine()) != null) {
-                JSONArray arr = new JSONArray(line);
-                for (int a = 0; a < arr.length(); a++) {
-                    String s = arr.getJSONObject(a).getJSONObject("object").getString("url");
-                    links.add(s);
+    /**
+     * Requests the raw user JSON.
+     *
+     * @param user user name
+     * @return promise for JSON text
+     */
+    public Promise<String> user(String user) {
+        URI resolve = UriBuilder.fromUri(baseUri).path("/rest/api/latest/user")
+                .queryParam("username", user)
+                .queryParam("expand", "groups")
+                .build(new Object[0]);
+        return getJSON(resolve);
+    }
+
+    /**
+     * Requests the raw project JSON, including its versions.
+     *
+     * @param key project key
+     * @return promise for JSON text
+     */
+    public Promise<String> project(String key) {
+        URI resolve = UriBuilder.fromUri(baseUri).path("/rest/api/latest/project/" + key).build(new Object[0]);
+        return getJSON(resolve);
+    }
+
+    /**
+     * Requests the raw filter JSON.
+     *
+     * @param id filter ID
+     * @return promise for JSON text
+     */
+    public Promise<String> filter(long id) {
+        URI resolve = UriBuilder.fromUri(baseUri).path("/rest/api/latest/filter/" + id).build(new Object[0]);
+        return getJSON(resolve);
+    }
+
+    public TrafficArchive getArchive() {
+        return archive;
+    }
+
+    private URI issueURI(String key, String fields, boolean full) {
+        return UriBuilder.fromUri(baseUri).path("/rest/api/latest/issue/" + key)
+                .queryParam("fields", sortFields(fields))
+                .queryParam("expand", full ? "names,schema,changelog" : "names,schema")
+                .build(new Object[0]);
+    }
+
+    private URI searchURI(String jql, int maxResults, int startAt, String fields, boolean full) {
+        return UriBuilder.fromUri(baseUri).path("/rest/api/latest/search")
+                .queryParam("jql", jql)
+                .queryParam("maxResults", maxResults)
+                .queryParam("startAt", startAt)
+                .queryParam("fields", sortFields(fields))
+                .queryParam("expand", full ? "names,schema,changelog" : "names,schema")
+                .build(new Object[0]);
+    }
+
+    // JIRA does not care about the field order, but the archive matches requests exactly.
+    private static String sortFields(String fields) {
+        String[] fs = fields.split(",");
+        Arrays.sort(fs);
+        return String.join(",", fs);
+    }
+
+    private static String request(URI uri) {
+        return uri.getRawPath() + ((uri.getRawQuery() != null) ? "?" + uri.getRawQuery() : "");
+    }
+
+    private void recordBatch(String json, String fields, boolean full) {
+        try {
+            JSONObject search = new JSONObject(json);
+            JSONObject names = search.optJSONObject("names");
+            JSONObject schema = search.optJSONObject("schema");
+            JSONArray arr = search.getJSONArray("issues");
+            for (int c = 0; c < arr.length(); c++) {
+                JSONObject issue = new JSONObject(arr.getJSONObject(c).toString());
+                issue.put("names", names);
+                issue.put("schema", schema);
+                archive.record(request(issueURI(issue.getString("key"), fields, full)), 200, issue.toString());
+            }
+        } catch (JSONException e) {
+            // Broken response would fail the batch, nothing to record.
+        }
+    }
+
+    private static String batchJSON(List<String> issues) {
+        try {
+            JSONObject search = new JSONObject();
+            JSONArray arr = new JSONArray();
+            for (String s : issues) {
+                JSONObject issue = new JSONObject(s);
+                search.put("names", issue.remove("names"));
+                search.put("schema", issue.remove("schema"));
+                arr.put(issue);
+            }
+            search.put("startAt", 0);
+            search.put("maxResults", issues.size());
+            search.put("total", issues.size());
+            search.put("issues", arr);
+            return search.toString();
+        } catch (JSONException e) {
+            throw new RestClientException(e);
+        }
+    }
+
+    private Promise<String> getJSON(URI uri) {
+        String request = request(uri);
+        if (archive != null && archive.isReplay()) {
+            return archive.replay(request);
+        }
+        return fetch(uri, request);
+    }
+
+    // Does the actual request, and records the response if request is given.
+    private Promise<String> fetch(URI uri, String request) {
+        return httpClient.newRequest(uri).setAccept("application/json").get().map(r -> {
+            if (!r.isSuccessful()) {
+                long retryAfter = RetryAfterException.parseRetryAfter(r.getHeader("Retry-After"));
+                if (retryAfter >= 0) {
+                    throw new RetryAfterException(r.getStatusCode(), retryAfter);
                 }
+                // Throttling and server errors are transient, the retry would get the real answer.
+                int status = r.getStatusCode();
+                if (archive != null && request != null && status != 429 && status < 500) {
+                    archive.record(request, status, null);
+                }
+                throw new RestClientException(Collections.emptyList(), status);
+            }
+            String entity = r.getEntity();
+            if (archive != null && request != null) {
+                archive.record(request, r.getStatusCode(), entity);
             }
-            return links;
-        } catch (IOException e) {
-            return Collections.emptyList();
+            return entity;
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (archive != null) {
+            archive.save();
+        }
+        if (httpClient != null) {
+            httpClient.destroy();
         }
     }
 }
@@ -26,6 +26,8 @@ package org.openjdk.backports.jira;
 
 import com.atlassian.jira.rest.client.api.domain.Issue;
 
+import java.util.concurrent.CompletableFuture;
+
 public class ResolvedIssuePromise implements IssuePromise {
     private final Issue issue;
 
@@ -37,4 +39,9 @@ public class ResolvedIssuePromise implements IssuePromise {
     public Issue claim() {
         return issue;
     }
+
+    @Override
+    public CompletableFuture<Issue> future() {
+        return CompletableFuture.completedFuture(issue);
+    }
 }
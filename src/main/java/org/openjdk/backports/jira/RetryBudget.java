@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounds the retries, so that when JIRA is down, requests fail fast instead of
+ * retrying endlessly, and multiplying the load. Retries are paid from the budget,
+ * which is replenished by the new requests, and also refills with time. Time refill
+ * matters when requests are few but large, e.g. batched searches: one throttling
+ * burst should not leave the rest of the run without retries.
+ */
+class RetryBudget {
+    // Allow this many retries right away, before any requests are made.
+    private static final double RESERVE = 20;
+
+    // Every request allows this many retries.
+    private static final double RATIO = 0.2;
+
+    // Every second allows this many retries.
+    private static final double PER_SECOND = 1;
+
+    // Do not accumulate more than this.
+    private static final double MAX = 200;
+
+    private final LongSupplier nanoClock;
+    private double tokens = RESERVE;
+    private long lastRefill;
+
+    private long retries;
+    private long denied;
+
+    RetryBudget() {
+        this(System::nanoTime);
+    }
+
+    RetryBudget(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    synchronized void deposit() {
+        tokens = Math.min(MAX, tokens + RATIO);
+    }
+
+    synchronized boolean withdraw() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(MAX, tokens + PER_SECOND * (now - lastRefill) / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            retries++;
+            return true;
+        }
+        denied++;
+        return false;
+    }
+
+    /**
+     * Prints the retry stats.
+     *
+     * @param out stream to print to
+     */
+    synchronized void printStats(PrintStream out) {
+        out.println("JIRA retries: " + retries + " done, " + denied + " denied by retry budget");
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.internal.json.IssueJsonParser;
+import io.atlassian.util.concurrent.Promise;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves several issues with a single search request.
+ */
+public class RetryableBatchPromise extends RetryablePromise<Map<String, Issue>> {
+
+    private final RawRestClient rawCli;
+    private final IssueDiskCache diskCache;
+    private final List<String> keys;
+    private final String fields;
+    private final boolean full;
+
+    public RetryableBatchPromise(ConcurrencyLimiter limiter, RawRestClient rawCli, IssueDiskCache diskCache, List<String> keys, String fields, boolean full) {
+        super(limiter);
+        this.rawCli = rawCli;
+        this.diskCache = diskCache;
+        this.keys = keys;
+        this.fields = fields;
+        this.full = full;
+        init();
+    }
+
+    @Override
+    protected ConcurrencyLimiter.Kind kind() {
+        return ConcurrencyLimiter.Kind.BATCH;
+    }
+
+    @Override
+    protected Promise<Map<String, Issue>> get() {
+        return rawCli.batch(keys, fields, full).map(s -> {
+            try {
+                return parse(new JSONObject(s));
+            } catch (JSONException e) {
+                throw new RestClientException(e);
+            }
+        });
+    }
+
+    private Map<String, Issue> parse(JSONObject json) throws JSONException {
+        JSONObject names = json.optJSONObject("names");
+        JSONObject schema = json.optJSONObject("schema");
+        JSONArray arr = json.getJSONArray("issues");
+
+        Map<String, Issue> result = new HashMap<>();
+        for (int c = 0; c < arr.length(); c++) {
+            JSONObject issueJson = arr.getJSONObject(c);
+            String key = issueJson.getString("key");
+            Issue issue;
+            if (diskCache != null) {
+                // Disk cache expects the issue JSON to be the same as standalone request would give.
+                issueJson.put("names", names);
+                issueJson.put("schema", schema);
+                issue = diskCache.store(key, issueJson);
+            } else {
+                issue = new IssueJsonParser(names, schema).parse(issueJson);
+            }
+            result.put(key, issue);
+        }
+        return result;
+    }
+
+}
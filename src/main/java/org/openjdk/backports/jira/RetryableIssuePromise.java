@@ -24,38 +24,67 @@
  */
 package org.openjdk.backports.jira;
 
-import com.atlassian.jira.rest.client.api.IssueRestClient;
+import com.atlassian.jira.rest.client.api.RestClientException;
 import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.atlassian.jira.rest.client.internal.json.IssueJsonParser;
 import io.atlassian.util.concurrent.Promise;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 
-import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 public class RetryableIssuePromise extends RetryablePromise<Issue> implements IssuePromise {
     private final Issues issues;
-    private final IssueRestClient cli;
+    private final RawRestClient rawCli;
+    private final IssueDiskCache diskCache;
     private final String key;
+    private final String fields;
     private final boolean full;
 
-    public RetryableIssuePromise(Issues issues, IssueRestClient cli, String key, boolean full) {
+    public RetryableIssuePromise(ConcurrencyLimiter limiter, Issues issues, RawRestClient rawCli, IssueDiskCache diskCache, String key, String fields, boolean full) {
+        super(limiter);
         this.issues = issues;
-        this.cli = cli;
+        this.rawCli = rawCli;
+        this.diskCache = diskCache;
         this.key = key;
+        this.fields = fields;
         this.full = full;
         init();
     }
 
+    @Override
+    protected ConcurrencyLimiter.Kind kind() {
+        return ConcurrencyLimiter.Kind.ISSUE;
+    }
+
     protected Promise<Issue> get() {
-        if (full) {
-            return cli.getIssue(key, Collections.singleton(IssueRestClient.Expandos.CHANGELOG));
-        } else {
-            return cli.getIssue(key);
-        }
+        // JRJC issue client cannot ask for the particular fields, ask for raw JSON and parse ourselves.
+        return rawCli.issue(key, fields, full).map(s -> {
+            try {
+                JSONObject json = new JSONObject(s);
+                if (diskCache != null) {
+                    return diskCache.store(key, json);
+                } else {
+                    return new IssueJsonParser(json.optJSONObject("names"), json.optJSONObject("schema")).parse(json);
+                }
+            } catch (JSONException e) {
+                throw new RestClientException(e);
+            }
+        });
     }
 
     public Issue claim() {
-        Issue issue = super.claim();
+        return register(super.claim());
+    }
+
+    @Override
+    public CompletableFuture<Issue> future() {
+        return super.future().thenApply(this::register);
+    }
+
+    private Issue register(Issue issue) {
         if (issue != null && issues != null) {
-            issues.registerIssueCache(key, issue);
+            issues.registerIssueCache(key, issue, full);
         }
         return issue;
     }
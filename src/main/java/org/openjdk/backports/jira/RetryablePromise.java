@@ -27,43 +27,143 @@ package org.openjdk.backports.jira;
 import com.atlassian.jira.rest.client.api.RestClientException;
 import io.atlassian.util.concurrent.Promise;
 
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.function.Function;
 
+/**
+ * Promise that retries the failed request. Retries are scheduled on the timer,
+ * so that nothing waits for the retry while it is pending, except the threads
+ * that claim the result.
+ */
 public abstract class RetryablePromise<T> {
 
-    private Promise<T> cur;
+    private static final int MAX_RETRIES = 10;
+
+    // Exponential backoff, with full jitter: the delay is random, up to this bound.
+    private static final long BASE_DELAY_MS = 100;
+    private static final long MAX_DELAY_MS = 30_000;
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "JIRA retry timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Resubmits might wait for concurrency limiter, do not stall the timer with them.
+    private static final ExecutorService RESUBMITTER = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "JIRA retry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final ConcurrencyLimiter limiter;
+    private final CompletableFuture<T> result;
+
+    protected RetryablePromise(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+        this.result = new CompletableFuture<>();
+    }
 
     protected abstract Promise<T> get();
 
+    protected abstract ConcurrencyLimiter.Kind kind();
+
     protected void init() {
-        cur = get();
+        if (limiter != null) {
+            limiter.getRetryBudget().deposit();
+        }
+        attempt(0);
+    }
+
+    private void attempt(int retry) {
+        Promise<T> p;
+        try {
+            p = submit();
+        } catch (RuntimeException e) {
+            onFailure(retry, e);
+            return;
+        }
+        p.done(result::complete).fail(e -> onFailure(retry, e));
+    }
+
+    private Promise<T> submit() {
+        if (limiter == null) {
+            return get();
+        }
+        ConcurrencyLimiter.Ticket ticket = limiter.acquire(kind());
+        Promise<T> p;
+        try {
+            p = get();
+        } catch (RuntimeException e) {
+            ticket.failure(e);
+            throw e;
+        }
+        return p.done(v -> ticket.success()).fail(ticket::failure);
+    }
+
+    private void onFailure(int retry, Throwable e) {
+        Throwable cause = unwrap(e);
+        if (isValidError(cause) || retry >= MAX_RETRIES) {
+            result.completeExceptionally(cause);
+            return;
+        }
+        if (limiter != null && !limiter.getRetryBudget().withdraw()) {
+            result.completeExceptionally(cause);
+            return;
+        }
+        TIMER.schedule(() -> RESUBMITTER.execute(() -> attempt(retry + 1)), retryDelay(retry, cause), TimeUnit.MILLISECONDS);
+    }
+
+    private static long retryDelay(int retry, Throwable e) {
+        long bound = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << retry);
+        long delay = ThreadLocalRandom.current().nextLong(bound + 1);
+        if (e instanceof RetryAfterException) {
+            // Server told us when to come back. Still add some jitter, so that
+            // throttled requests do not come back all at once.
+            delay += ((RetryAfterException) e).getRetryAfterMs();
+        }
+        return delay;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof ExecutionException || e instanceof CompletionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Replies the future that completes when request finally succeeds or fails.
+     *
+     * @return future for the result
+     */
+    public CompletableFuture<T> future() {
+        // Do not let callers complete our own future.
+        return result.thenApply(Function.identity());
     }
 
     public T claim() {
-        for (int t = 0; t < 10; t++) {
-            try {
-                return cur.claim();
-            } catch (Exception e) {
-                if (isValidError(e)) {
-                    throw e;
-                }
-                try {
-                    TimeUnit.MILLISECONDS.sleep((1 + t*t)*100);
-                } catch (InterruptedException ie) {
-                    ie.printStackTrace();
-                }
-                cur = get();
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
             }
+            throw new RestClientException(cause);
         }
-        return cur.claim();
     }
 
-    private boolean isValidError(Exception e) {
+    private static boolean isValidError(Throwable e) {
         if (e instanceof RestClientException) {
             RestClientException rce = (RestClientException) e;
             Integer errCode = rce.getStatusCode().orNull();
             if (errCode != null) {
-                return errCode >= 400 && errCode < 500;
+                // Too Many Requests is transient, retry it.
+                return errCode >= 400 && errCode < 500 && errCode != 429;
             }
         }
         return false;
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import io.atlassian.util.concurrent.Promise;
+import org.json.JSONArray;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Resolves the URLs of the remote links for the issue.
+ */
+public class RetryableRemoteLinksPromise extends RetryablePromise<Collection<String>> {
+
+    private final RawRestClient rawCli;
+    private final String key;
+
+    public RetryableRemoteLinksPromise(ConcurrencyLimiter limiter, RawRestClient rawCli, String key) {
+        super(limiter);
+        this.rawCli = rawCli;
+        this.key = key;
+        init();
+    }
+
+    @Override
+    protected ConcurrencyLimiter.Kind kind() {
+        return ConcurrencyLimiter.Kind.LINKS;
+    }
+
+    @Override
+    protected Promise<Collection<String>> get() {
+        return rawCli.remoteLinks(key).map(s -> {
+            Collection<String> links = new ArrayList<>();
+            JSONArray arr = new JSONArray(s);
+            for (int a = 0; a < arr.length(); a++) {
+                links.add(arr.getJSONObject(a).getJSONObject("object").getString("url"));
+            }
+            return links;
+        });
+    }
+
+}
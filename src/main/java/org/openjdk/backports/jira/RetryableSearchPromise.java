@@ -24,28 +24,47 @@
  */
 package org.openjdk.backports.jira;
 
-import com.atlassian.jira.rest.client.api.SearchRestClient;
+import com.atlassian.jira.rest.client.api.RestClientException;
 import com.atlassian.jira.rest.client.api.domain.SearchResult;
+import com.atlassian.jira.rest.client.internal.json.SearchResultJsonParser;
 import io.atlassian.util.concurrent.Promise;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import java.util.Set;
 
 public class RetryableSearchPromise extends RetryablePromise<SearchResult> {
 
-    private final SearchRestClient searchCli;
+    private final RawRestClient rawCli;
     private final String query;
     private final int pageSize;
     private final int cnt;
+    private final Set<String> fields;
 
-    public RetryableSearchPromise(SearchRestClient searchCli, String query, int pageSize, int cnt) {
-        this.searchCli = searchCli;
+    public RetryableSearchPromise(ConcurrencyLimiter limiter, RawRestClient rawCli, String query, int pageSize, int cnt, Set<String> fields) {
+        super(limiter);
+        this.rawCli = rawCli;
         this.query = query;
         this.pageSize = pageSize;
         this.cnt = cnt;
+        this.fields = fields;
         init();
     }
 
+    @Override
+    protected ConcurrencyLimiter.Kind kind() {
+        return ConcurrencyLimiter.Kind.SEARCH;
+    }
+
     @Override
     protected Promise<SearchResult> get() {
-        return searchCli.searchJql(query, pageSize, cnt, null);
+        return rawCli.search(query, pageSize, cnt, String.join(",", fields), false).map(s -> {
+            try {
+                return new SearchResultJsonParser().parse(new JSONObject(s));
+            } catch (JSONException e) {
+                throw new RestClientException(e);
+            }
+        });
     }
 
 }
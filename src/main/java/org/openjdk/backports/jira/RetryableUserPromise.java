@@ -24,24 +24,49 @@
  */
 package org.openjdk.backports.jira;
 
-import com.atlassian.jira.rest.client.api.UserRestClient;
+import com.atlassian.jira.rest.client.api.RestClientException;
 import com.atlassian.jira.rest.client.api.domain.User;
+import com.atlassian.jira.rest.client.internal.json.UserJsonParser;
 import io.atlassian.util.concurrent.Promise;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 
-public class RetryableUserPromise extends RetryablePromise<User> {
+/**
+ * Resolves the user. The result is the raw user JSON, so that it can be
+ * kept on disk as is; {@link #parse(String)} turns it into the user.
+ */
+public class RetryableUserPromise extends RetryablePromise<String> {
 
-    private final UserRestClient userCli;
+    private final RawRestClient rawCli;
     private final String user;
 
-    public RetryableUserPromise(UserRestClient userCli, String user) {
-        this.userCli = userCli;
+    public RetryableUserPromise(ConcurrencyLimiter limiter, RawRestClient rawCli, String user) {
+        super(limiter);
+        this.rawCli = rawCli;
         this.user = user;
         init();
     }
 
     @Override
-    protected Promise<User> get() {
-        return userCli.getUser(user);
+    protected ConcurrencyLimiter.Kind kind() {
+        return ConcurrencyLimiter.Kind.USER;
+    }
+
+    @Override
+    protected Promise<String> get() {
+        return rawCli.user(user).map(s -> {
+            // Fail early on bad JSON, so that it is retried like other failures.
+            parse(s);
+            return s;
+        });
+    }
+
+    public static User parse(String json) {
+        try {
+            return new UserJsonParser().parse(new JSONObject(json));
+        } catch (JSONException e) {
+            throw new RestClientException(e);
+        }
     }
 
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import io.atlassian.util.concurrent.Promise;
+import io.atlassian.util.concurrent.Promises;
+import org.openjdk.backports.FileUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the JIRA responses in a single compressed file. In recording mode,
+ * every completed request is remembered, and the archive is written out on close.
+ * In replay mode, requests are served from the archive with the synthetic
+ * latency, and never reach the network. Requests are identified by their
+ * path and query, so the replay is only faithful if it runs the same reports
+ * with the same options. Batched issue searches are kept as the per-issue
+ * responses, because the batches themselves depend on timing.
+ */
+public class TrafficArchive {
+
+    private static final int MAGIC = 0x4A524141; // "JRAA"
+    private static final int VERSION = 2;
+
+    private final File file;
+    private final boolean replay;
+    private final long latencyMs;
+    private final Map<String, Entry> entries;
+    private final ScheduledExecutorService timer;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final Set<String> misses = ConcurrentHashMap.newKeySet();
+
+    private TrafficArchive(File file, boolean replay, long latencyMs, Map<String, Entry> entries) {
+        this.file = file;
+        this.replay = replay;
+        this.latencyMs = latencyMs;
+        this.entries = entries;
+        if (replay) {
+            this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "JIRA replay");
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            this.timer = null;
+        }
+    }
+
+    /**
+     * Creates the empty archive that would record the responses.
+     *
+     * @param file archive file, written on {@link #save()}
+     * @return archive
+     */
+    public static TrafficArchive record(File file) {
+        return new TrafficArchive(file, false, 0, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Loads the previously recorded archive for replay.
+     *
+     * @param file archive file
+     * @param latencyMs synthetic latency for every response
+     * @return archive
+     * @throws IOException if archive cannot be read
+     */
+    public static TrafficArchive replay(File file, long latencyMs) throws IOException {
+        Map<String, Entry> entries = new HashMap<>();
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+                throw new IOException("Not a JIRA traffic archive: " + file);
+            }
+            int count = dis.readInt();
+            for (int c = 0; c < count; c++) {
+                String request = readString(dis);
+                int status = dis.readInt();
+                String body = readString(dis);
+                entries.put(request, new Entry(status, body));
+            }
+        }
+        return new TrafficArchive(file, true, latencyMs, entries);
+    }
+
+    public boolean isReplay() {
+        return replay;
+    }
+
+    /**
+     * Remembers the response for the request.
+     *
+     * @param request request path and query, or full URL for requests outside JIRA
+     * @param status HTTP status code
+     * @param body response body, null if there is none
+     */
+    public void record(String request, int status, String body) {
+        entries.put(request, new Entry(status, body));
+    }
+
+    /**
+     * Serves the recorded response. Requests that were not recorded fail
+     * the same way missing resources do, with 404.
+     *
+     * @param request request path and query
+     * @return promise for response body
+     */
+    public Promise<String> replay(String request) {
+        CompletableFuture<String> cf = new CompletableFuture<>();
+        Entry e = entries.get(request);
+        if (e != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.add(request);
+        }
+        timer.schedule(() -> {
+            if (e != null && e.isSuccessful()) {
+                cf.complete(e.body);
+            } else {
+                cf.completeExceptionally(new RestClientException(Collections.emptyList(), (e != null) ? e.status : 404));
+            }
+        }, latencyMs, TimeUnit.MILLISECONDS);
+        return Promises.forCompletionStage(cf);
+    }
+
+    /**
+     * Serves the recorded responses for several requests at once, with a single
+     * synthetic latency. Requests that were not recorded, or were recorded as
+     * failed, are left out.
+     *
+     * @param requests request paths and queries
+     * @return promise for the recorded response bodies
+     */
+    public Promise<List<String>> replayAll(List<String> requests) {
+        List<String> bodies = new ArrayList<>();
+        for (String request : requests) {
+            Entry e = entries.get(request);
+            if (e != null && e.isSuccessful()) {
+                hits.incrementAndGet();
+                bodies.add(e.body);
+            }
+        }
+        CompletableFuture<List<String>> cf = new CompletableFuture<>();
+        timer.schedule(() -> cf.complete(bodies), latencyMs, TimeUnit.MILLISECONDS);
+        return Promises.forCompletionStage(cf);
+    }
+
+    Set<String> getMisses() {
+        return Collections.unmodifiableSet(misses);
+    }
+
+    /**
+     * Writes out the recorded responses. Does nothing in replay mode.
+     *
+     * @throws IOException if archive cannot be written
+     */
+    public void save() throws IOException {
+        if (replay) {
+            return;
+        }
+        FileUtils.writeAtomically(file, os -> {
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(os)))) {
+                dos.writeInt(MAGIC);
+                dos.writeInt(VERSION);
+                Map<String, Entry> sorted = new TreeMap<>(entries);
+                dos.writeInt(sorted.size());
+                for (Map.Entry<String, Entry> me : sorted.entrySet()) {
+                    writeString(dos, me.getKey());
+                    dos.writeInt(me.getValue().status);
+                    writeString(dos, me.getValue().body);
+                }
+            }
+        });
+    }
+
+    public void printStats(PrintStream out) {
+        if (replay) {
+            out.println("Traffic archive: " + hits.get() + " responses replayed from " + file +
+                    ", " + misses.size() + " requests not recorded");
+            for (String m : new TreeSet<>(misses)) {
+                out.println("  missing: " + m);
+            }
+        } else {
+            out.println("Traffic archive: " + entries.size() + " responses recorded to " + file);
+        }
+    }
+
+    private static String readString(DataInputStream dis) throws IOException {
+        int len = dis.readInt();
+        if (len < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[len];
+        dis.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream dos, String s) throws IOException {
+        if (s == null) {
+            dos.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+    private static class Entry {
+        final int status;
+        final String body;
+
+        Entry(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
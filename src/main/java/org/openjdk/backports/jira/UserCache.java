@@ -24,324 +24,362 @@
  */
 package org.openjdk.backports.jira;
 
-import com.atlassian.jira.rest.client.api.UserRestClient;
+import com.atlassian.jira.rest.client.api.RestClientException;
 import com.atlassian.jira.rest.client.api.domain.User;
 import io.atlassian.util.concurrent.Promise;
 import org.openjdk.backports.census.Census;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
+// Shared by the models that can run concurrently. User lookups are futures, so that
+// many of them can be in flight at once; the blocking getters wait only for the users
+// that were not prefetched.
 public class UserCache {
-    private final UserRestClient client;
-    private final Map<String, User> users;
-    private final Map<String, RetryableUserPromise> userPromises;
-    private final Map<String, String> displayNames;
-    private final Map<String, String> affiliations;
-    private List<String> censusIds;
-
-    public UserCache(UserRestClient client) {
+
+    // How long to wait for the background reloads of stale users before saving the disk cache.
+    private static final long REVALIDATE_WAIT_SEC = 60;
+
+    private final RawRestClient client;
+    private final ConcurrencyLimiter limiter;
+    private final UserDiskCache diskCache;
+    private final Census census;
+    private final ConcurrentMap<String, CompletableFuture<User>> users;
+    private final ConcurrentMap<String, String> displayNames;
+    private final ConcurrentMap<String, String> affiliations;
+    private volatile AffiliationClassifier classifier;
+    private volatile List<String> censusIds;
+
+    // Background reloads of stale users, the disk cache is saved once they complete.
+    private final Set<CompletableFuture<String>> revalidations = ConcurrentHashMap.newKeySet();
+
+    // Lowercase email -> Census user, built once on the first lookup by email.
+    private volatile Map<String, User> emailIndex;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong diskStale = new AtomicLong();
+
+    public UserCache(RawRestClient client, ConcurrencyLimiter limiter, UserDiskCache diskCache, Census census) {
         this.client = client;
-        this.users = new HashMap<>();
-        this.userPromises = new HashMap<>();
-        this.displayNames = new HashMap<>();
-        this.affiliations = new HashMap<>();
+        this.limiter = limiter;
+        this.diskCache = diskCache;
+        this.census = census;
+        this.users = new ConcurrentHashMap<>();
+        this.displayNames = new ConcurrentHashMap<>();
+        this.affiliations = new ConcurrentHashMap<>();
+        this.classifier = AffiliationClassifier.defaults();
     }
 
     public List<String> resolveCensus() {
-        if (censusIds == null) {
-            censusIds = Census.userIds();
+        List<String> ids = censusIds;
+        if (ids == null) {
+            synchronized (this) {
+                ids = censusIds;
+                if (ids == null) {
+                    ids = census.userIds();
 
-            // Start async resolve for all users
-            for (String uid : censusIds) {
-                userPromises.put(uid, new RetryableUserPromise(client, uid));
+                    // Start async resolve for all users
+                    for (String uid : ids) {
+                        getUserAsync(uid);
+                    }
+                    censusIds = ids;
+                }
             }
         }
-        return censusIds;
+        return ids;
     }
 
-    private User lookupByEmail(String email) {
-        for (String uid : resolveCensus()) {
-            User u = getUser(uid);
-            if (u != null && u.getEmailAddress().equalsIgnoreCase(email)) {
-                return u;
-            }
+    /**
+     * Looks up the user without waiting for it.
+     *
+     * @param id user ID
+     * @return future that completes with the user, or with null if there is no such user
+     */
+    public CompletableFuture<User> getUserAsync(String id) {
+        CompletableFuture<User> f = users.get(id);
+        if (f != null) {
+            hits.incrementAndGet();
+            return f;
         }
-        return null;
-    }
 
-    private User getUser(String id) {
-        return users.computeIfAbsent(id, u -> {
+        // Issuing the request might wait for the concurrency limiter,
+        // so do it outside of the map update.
+        CompletableFuture<User> nf = new CompletableFuture<>();
+        f = users.putIfAbsent(id, nf);
+        if (f != null) {
+            hits.incrementAndGet();
+            return f;
+        }
+        misses.incrementAndGet();
+
+        UserDiskCache.Entry cached = (diskCache != null) ? diskCache.get(id) : null;
+        if (cached != null) {
             try {
-                RetryableUserPromise p = userPromises.get(u);
-                if (p == null) {
-                    p = new RetryableUserPromise(client, u);
-                    userPromises.put(u, p);
+                nf.complete((cached.getJSON() != null) ? RetryableUserPromise.parse(cached.getJSON()) : null);
+                diskHits.incrementAndGet();
+                if (!diskCache.isFresh(cached)) {
+                    // Use the stale user in this run, and reload it for the next one.
+                    diskStale.incrementAndGet();
+                    CompletableFuture<String> rf = fetch(id);
+                    revalidations.add(rf);
+                    rf.whenComplete((json, e) -> revalidations.remove(rf));
                 }
-                return p.claim();
+                return nf;
             } catch (Exception e) {
-                return null;
+                // Broken entry, reload.
             }
-        });
-    }
+        }
 
-    public String getDisplayName(String id) {
-        return displayNames.computeIfAbsent(id, u -> {
-            User user = getUser(u);
-            if (user == null) {
-                // No user with such User ID, try to fuzzy match the email
-                user = lookupByEmail(u);
+        fetch(id).whenComplete((json, e) -> {
+            try {
+                nf.complete((e == null) ? RetryableUserPromise.parse(json) : null);
+            } catch (Exception pe) {
+                nf.complete(null);
             }
+        });
+        return nf;
+    }
 
-            if (user != null) {
-                return user.getDisplayName();
-            } else {
-                // No hits in Census.
-                int email = u.indexOf("@");
-                if (email != -1) {
-                    // Looks like email, extract.
-                    return u.substring(0, email);
-                } else {
-                    // No dice, report verbatim.
-                    return u;
+    private CompletableFuture<String> fetch(String id) {
+        CompletableFuture<String> f;
+        try {
+            f = new RetryableUserPromise(limiter, client, id).future();
+        } catch (Exception e) {
+            CompletableFuture<String> ef = new CompletableFuture<>();
+            ef.completeExceptionally(e);
+            return ef;
+        }
+        if (diskCache != null) {
+            // Dependents see the result only after it is in the disk cache.
+            f = f.whenComplete((json, e) -> {
+                if (e == null) {
+                    diskCache.put(id, json);
+                } else if (isNotFound(e)) {
+                    diskCache.put(id, null);
                 }
-            }
-        });
+            });
+        }
+        return f;
     }
 
-    public String getAffiliation(String id) {
-        return affiliations.computeIfAbsent(id, u -> {
-            User user = getUser(u);
-            if (user == null) {
-                // No user with such User ID, try to fuzzy match the email
-                user = lookupByEmail(u);
-            }
+    private static boolean isNotFound(Throwable e) {
+        while ((e instanceof ExecutionException || e instanceof CompletionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        if (e instanceof RestClientException) {
+            Integer code = ((RestClientException) e).getStatusCode().orNull();
+            return code != null && code == 404;
+        }
+        return false;
+    }
 
-            if (user != null) {
-                // Look up in Census succeeded, pick the email address.
-                String email = user.getEmailAddress();
-                return generifyAffiliation(user.getDisplayName(), email.substring(email.indexOf("@")));
-            } else {
-                // No hits in Census.
-                int email = u.indexOf("@");
-                if (email != -1) {
-                    // Looks like email, extract.
-                    return generifyAffiliation(u, u.substring(email));
-                } else {
-                    // No dice, report as unknown.
-                    return "Unknown";
+    /**
+     * Writes the resolved users to disk cache, if there is one. Waits a bit
+     * for the stale users that are still reloading, so that the next run gets
+     * their fresh copies.
+     */
+    public void save() {
+        if (diskCache == null) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(revalidations.toArray(new CompletableFuture[0]))
+                    .get(REVALIDATE_WAIT_SEC, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Save what we have, the rest is reloaded next time.
+        }
+        diskCache.save();
+    }
+
+    /**
+     * Resolves the users, their display names and affiliations, so that the
+     * later calls to {@link #getDisplayName(String)} and {@link #getAffiliation(String)}
+     * for them do not wait. All lookups are issued at once before waiting for any.
+     *
+     * @param ids user IDs
+     */
+    public void prefetch(Collection<String> ids) {
+        List<CompletableFuture<User>> fs = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            fs.add(getUserAsync(id));
+        }
+        CompletableFuture.allOf(fs.toArray(new CompletableFuture[0])).join();
+        for (String id : ids) {
+            getDisplayName(id);
+            getAffiliation(id);
+        }
+    }
+
+    private User lookupByEmail(String email) {
+        return getEmailIndex().get(email.toLowerCase(Locale.ROOT));
+    }
+
+    private Map<String, User> getEmailIndex() {
+        Map<String, User> index = emailIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = emailIndex;
+                if (index == null) {
+                    index = buildEmailIndex();
+                    emailIndex = index;
                 }
             }
-        });
+        }
+        return index;
     }
 
-    static final String[] INDEPENDENTS = {
-            "@wambold.com",
-            "@yandex.ru",
-            "@gmail.com",
-            "@freenet.de",
-            "@hollowman.ml",
-            "@ludovic.dev",
-            "@samersoff.net",
-            "@volkhart.com",
-            "@xlate.io",
-            "@apache.org",
-            "@users.noreply.github.com",
-            "@outlook.com",
-            "@j-kuhn.de",
-            "@yahoo.com",
-            "@ckozak.net",
-            "@cs.oswego.edu",
-            "@integralblue.com",
-            "@gmx.de",
-            "@gmx.at",
-            "@gmx.ch",
-            "@gmx.com",
-            "@mail.ru",
-            "@univ-mlv.fr",
-            "@joda.org",
-            "@pnnl.gov",
-            "@comcast.net",
-            "@thetaphi.de",
-            "@haupz.de",
-            "@duigou.org",
-            "@bempel.fr",
-            "@lagergren.net",
-            "@zoulas.com",
-            "@urma.com",
-            "@reshnm.de",
-            "@randahl.dk",
-            "@reini.net",
-            "@free.fr",
-            "@xs4all.nl",
-            "@tbee.org",
-            "@tabjy.com",
-            "@aaronbedra.com",
-            "@carl.pro",
-            "@gafter.com",
-            "@jugs.org",
-            "@jku.at",
-            "@sterbenz.net",
-            "@icloud.com",
-            "@jonathangiles.net",
-            "@ngmr",
-            "@126.com",
-            "@protonmail.com",
-            "@headcrashing.eu",
-            "@hotmail.com",
-            "@udel.edu",
-            "@javaspecialists.eu",
-            "@selskabet.org",
-            "@qq.com",
-            "@progrm-jarvis.ru",
-            "@jcornell.net",
-            "@icus.se",
-            "@prinzing.net",
-            "@utexas.edu",
-            "@cs.washington.edu",
-            "@iscas.ac.cn",
-            "@iernst.net",
-            "@cosoco.de",
-            "@foxmail.com",
-            "@cbfiddle.com",
-            "@iwes.fraunhofer.de",
-            "@nyssen.org",
-            "@lgonqn.org",
-            "@stanfordcomputing.com",
-            "@tai-dev.co.uk",
-            "@metricspace.net",
-            "@eyesbeyond.com",
-            "@posteo.de",
-            "@status6.com",
-            "@midverk.is",
-            "@csail.mit.edu",
-            "@mountainminds.com",
-            "@doppel-helix.eu",
-            "@web.de",
-            "@chello.at",
-            "@ngmr.net",
-            "@cs.usfca.edu",
-            "@knytt.se",
-            "@malloc.se",
-    };
-
-    static final String[][] COMPANIES = {
-            {"@oracle.com", "Oracle"},
-            {"@redhat.com", "Red Hat"},
-            {"@sap.com", "SAP"},
-            {"@tencent.com", "Tencent"},
-            {"@global.tencent.com", "Tencent"},
-            {"@amazon.com", "Amazon"},
-            {"@amazon.co.uk", "Amazon"},
-            {"@amazon.de", "Amazon"},
-            {"@huawei.com", "Huawei"},
-            {"@bell-sw.com", "BellSoft"},
-            {"@arm.com", "ARM"},
-            {"@azul.com", "Azul"},
-            {"@azulsystems.com", "Azul"},
-            {"@intel.com", "Intel"},
-            {"@microsoft.com", "Microsoft"},
-            {"@alibaba-inc.com", "Alibaba"},
-            {"@oss.nttdata.com", "NTT DATA"},
-            {"@microdoc.com", "Microdoc"},
-            {"@os.amperecomputing.com", "Ampere"},
-            {"@datadoghq.com", "DataDog"},
-            {"@google.com", "Google"},
-            {"@skymatic.de", "Skymatic"},
-            {"@gapfruit.com", "GapFruit"},
-            {"@loongson.cn", "Loongson"},
-            {"@tradingscreen.com", "TradingScreen"},
-            {"@jetbrains.com", "JetBrains"},
-            {"@twitter.com", "Twitter"},
-            {"@apple.com", "Apple"},
-            {"@sun.com", "Sun Microsystems"},
-            {"@linaro.com", "Linaro"},
-            {"@linaro.org", "Linaro"},
-            {"@amd.com", "AMD"},
-            {"@gluonhq.com", "Gluon"},
-            {"@vmware.com", "VMWare"},
-            {"@caviumnetworks.com", "Cavium"},
-            {"@ubuntu.com", "Ubuntu"},
-            {"@canonical.com", "Canonical"},
-            {"@freebsd.org", "FreeBSD"},
-            {"@suse.de", "SUSE"},
-            {"@fujitsu.com", "Fujitsu"},
-            {"@jp.fujitsu.com", "Fujitsu"},
-            {"@marvell.com", "Marvell"},
-            {"@tagtraum.com", "Tagtraum"},
-            {"@fb.com", "Facebook"},
-            {"@dynatrace.com", "Dynatrace"},
-            {"@rivosinc.com", "Rivos"},
-    };
-
-    static final String[][] SPECIAL_CASES = {
-            {"Thomas Stuefe", "SAP"},
-            {"Martin Buchholz", "Google"},
-            {"Tagir Valeev", "JetBrains"},
-            {"Volker Simonis", "Amazon"},
-            {"Charles Nutter", "Red Hat"},
-            {"Marcus Hirt", "DataDog"},
-            {"John Paul Adrian Glaubitz", "Debian"},
-            {"Lukas Eder", "DataGeekery"},
-            {"Andrew Haley", "Red Hat"},
-            {"Hamlin Li", "Huawei"},
-            {"Wang Huang", "Huawei"},
-    };
-
-    private String generifyAffiliation(String full, String v) {
-        // Pick a company first, if we can
-        for (String[] kv : COMPANIES) {
-            if (v.equals(kv[0])) {
-                return kv[1];
-            }
+    private Map<String, User> buildEmailIndex() {
+        List<String> ids = resolveCensus();
+        List<CompletableFuture<User>> fs = new ArrayList<>(ids.size());
+        for (String uid : ids) {
+            fs.add(getUserAsync(uid));
         }
 
-        // Lots of prefixes here: @in.ibm.com, @linux.ibm.com etc.
-        if (v.endsWith("ibm.com")) {
-            return "IBM";
+        // First user in Census order wins, if several share the email.
+        Map<String, User> index = new HashMap<>();
+        for (CompletableFuture<User> f : fs) {
+            User u = f.join();
+            if (u != null && u.getEmailAddress() != null) {
+                index.putIfAbsent(u.getEmailAddress().toLowerCase(Locale.ROOT), u);
+            }
         }
+        return index;
+    }
 
-        // Sometimes internal prefixes leak
-        if (v.endsWith("oracle.com")) {
-            return "Oracle";
+    private User getUser(String id) {
+        return getUserAsync(id).join();
+    }
+
+    private User getUserOrByEmail(String id) {
+        User user = getUser(id);
+        if (user == null) {
+            // No user with such User ID, try to fuzzy match the email
+            user = lookupByEmail(id);
         }
+        return user;
+    }
 
-        // AWS leak
-        if (v.endsWith("compute.internal")) {
-            return "Amazon";
+    public String getDisplayName(String id) {
+        String name = displayNames.get(id);
+        if (name != null) {
+            return name;
         }
 
-        // Special cases for special people
-        for (String[] kv : SPECIAL_CASES) {
-            if (full.equals(kv[0])) {
-                return kv[1];
+        User user = getUserOrByEmail(id);
+        if (user != null) {
+            name = user.getDisplayName();
+        } else {
+            // No hits in Census.
+            int email = id.indexOf("@");
+            if (email != -1) {
+                // Looks like email, extract.
+                name = id.substring(0, email);
+            } else {
+                // No dice, report verbatim.
+                name = id;
             }
         }
 
-        for (String ind : INDEPENDENTS) {
-            if (v.equals(ind)) {
-                return "Independent";
+        String ex = displayNames.putIfAbsent(id, name);
+        return (ex != null) ? ex : name;
+    }
+
+    public String getAffiliation(String id) {
+        String aff = affiliations.get(id);
+        if (aff != null) {
+            return aff;
+        }
+
+        User user = getUserOrByEmail(id);
+        String userEmail = (user != null) ? user.getEmailAddress() : null;
+        int userAt = (userEmail != null) ? userEmail.indexOf("@") : -1;
+        if (userAt != -1) {
+            // Look up in Census succeeded, pick the email address.
+            aff = classifier.classify(user.getDisplayName(), userEmail.substring(userAt));
+        } else {
+            // No hits in Census, or user has no usable email.
+            int email = id.indexOf("@");
+            if (email != -1) {
+                // Looks like email, extract.
+                aff = classifier.classify(id, id.substring(email));
+            } else {
+                // No dice, report as unknown.
+                aff = "Unknown";
             }
         }
 
-        return v;
+        String ex = affiliations.putIfAbsent(id, aff);
+        return (ex != null) ? ex : aff;
     }
 
-    public int maxAffiliation() {
-        int r = 0;
-        for (String v : affiliations.values()) {
-            r = Math.max(r, v.length());
+    /**
+     * Uses the affiliation rules from this file instead of the bundled ones.
+     * Affiliations computed before are not recomputed, so this should be called
+     * before the reports start.
+     *
+     * @param file mapping file
+     * @throws IOException if file cannot be read
+     */
+    public void setAffiliationsFile(File file) throws IOException {
+        classifier = AffiliationClassifier.load(file);
+    }
+
+    /**
+     * Computes the column width for the affiliations of these users.
+     * The cache is shared by all reports, so the width is only for the users the report prints.
+     *
+     * @param ids user IDs
+     * @return the longest affiliation length, at least 1
+     */
+    public int maxAffiliation(Collection<String> ids) {
+        int r = 1;
+        for (String id : ids) {
+            r = Math.max(r, getAffiliation(id).length());
         }
         return r;
     }
 
-    public int maxDisplayName() {
-        int r = 0;
-        for (String v : displayNames.values()) {
-            r = Math.max(r, v.length());
+    /**
+     * Computes the column width for the display names of these users.
+     *
+     * @param ids user IDs
+     * @return the longest display name length, at least 1
+     */
+    public int maxDisplayName(Collection<String> ids) {
+        int r = 1;
+        for (String id : ids) {
+            r = Math.max(r, getDisplayName(id).length());
         }
         return r;
     }
 
+    /**
+     * Prints the cache stats.
+     *
+     * @param out stream to print to
+     */
+    public void printStats(PrintStream out) {
+        out.println("User cache: " + users.size() + " users, " + hits.get() + " hits, " + misses.get() + " misses" +
+                ((diskCache != null) ? ", " + diskHits.get() + " from disk (" + diskStale.get() + " stale, reloading)" : ""));
+    }
 }
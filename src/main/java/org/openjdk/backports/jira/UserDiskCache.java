@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2026, Red Hat, Inc. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.backports.jira;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.openjdk.backports.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the raw JSON for resolved users on disk, so that subsequent runs
+ * do not have to resolve the whole Census again. Users that do not exist
+ * are remembered too. All users are kept in a single file, which is read
+ * on startup and written back on close, if anything changed.
+ */
+public class UserDiskCache {
+
+    private final File file;
+    private final long ttlMs;
+    private final Map<String, Entry> entries;
+    private volatile boolean dirty;
+
+    public UserDiskCache(File baseDir, int ttlDays) {
+        File dir = new File(baseDir, "users");
+        dir.mkdirs();
+
+        this.file = new File(dir, "users.json");
+        this.ttlMs = TimeUnit.DAYS.toMillis(ttlDays);
+        this.entries = new ConcurrentHashMap<>();
+
+        JSONObject json = FileUtils.readJSON(file);
+        if (json != null) {
+            Iterator<?> it = json.keys();
+            while (it.hasNext()) {
+                String id = it.next().toString();
+                JSONObject e = json.optJSONObject(id);
+                if (e != null) {
+                    JSONObject user = e.optJSONObject("user");
+                    entries.put(id, new Entry(e.optLong("fetched"), (user != null) ? user.toString() : null));
+                }
+            }
+        }
+    }
+
+    /**
+     * Replies the cached user.
+     *
+     * @param id user ID
+     * @return cached entry, or null if user was never resolved
+     */
+    public Entry get(String id) {
+        return entries.get(id);
+    }
+
+    /**
+     * Remembers the resolved user.
+     *
+     * @param id user ID
+     * @param json raw user JSON, or null if there is no such user
+     */
+    public void put(String id, String json) {
+        entries.put(id, new Entry(System.currentTimeMillis(), json));
+        dirty = true;
+    }
+
+    public boolean isFresh(Entry e) {
+        return System.currentTimeMillis() - e.fetched < ttlMs;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            JSONObject json = new JSONObject();
+            for (Map.Entry<String, Entry> me : entries.entrySet()) {
+                JSONObject e = new JSONObject();
+                e.put("fetched", me.getValue().fetched);
+                if (me.getValue().json != null) {
+                    e.put("user", new JSONObject(me.getValue().json));
+                }
+                json.put(me.getKey(), e);
+            }
+            FileUtils.writeAtomically(file, json.toString());
+        } catch (JSONException | IOException e) {
+            // Cache is best-effort, do nothing.
+        }
+    }
+
+    public static class Entry {
+        private final long fetched;
+        private final String json;
+
+        private Entry(long fetched, String json) {
+            this.fetched = fetched;
+            this.json = json;
+        }
+
+        /**
+         * @return raw user JSON, or null if there is no such user
+         */
+        public String getJSON() {
+            return json;
+        }
+    }
+
+}
@@ -24,34 +24,36 @@
  */
 package org.openjdk.backports.report.model;
 
-import com.atlassian.jira.rest.client.api.IssueRestClient;
-import com.atlassian.jira.rest.client.api.JiraRestClient;
-import com.atlassian.jira.rest.client.api.SearchRestClient;
 import org.openjdk.backports.jira.Clients;
+import org.openjdk.backports.jira.ConcurrencyLimiter;
 import org.openjdk.backports.jira.Issues;
 import org.openjdk.backports.jira.RawRestClient;
 import org.openjdk.backports.jira.UserCache;
 import org.openjdk.backports.report.Common;
 
 import java.io.PrintStream;
+import java.util.Arrays;
 
 abstract class AbstractModel extends Common {
 
-    protected final SearchRestClient searchCli;
-    protected final IssueRestClient issueCli;
     protected final PrintStream debugOut;
     protected final Issues jiraIssues;
     protected final UserCache users;
     protected final RawRestClient rawRest;
-    protected final JiraRestClient jiraCli;
+    protected final ConcurrencyLimiter limiter;
 
-    public AbstractModel(Clients clients, PrintStream debugOut) {
-        this.jiraCli = clients.getJiraRest();
+    /**
+     * Creates the model.
+     *
+     * @param clients JIRA clients
+     * @param debugOut debug output
+     * @param fields JIRA fields this model needs, by ID, or by name for custom fields
+     */
+    public AbstractModel(Clients clients, PrintStream debugOut, String... fields) {
         this.rawRest = clients.getRawRest();
-        this.searchCli = jiraCli.getSearchClient();
-        this.issueCli = jiraCli.getIssueClient();
+        this.limiter = clients.getLimiter();
         this.debugOut = debugOut;
-        this.jiraIssues = new Issues(debugOut, searchCli, issueCli);
-        this.users = new UserCache(jiraCli.getUserClient());
+        this.jiraIssues = new Issues(debugOut, clients, Arrays.asList(fields));
+        this.users = clients.getUserCache();
     }
 }
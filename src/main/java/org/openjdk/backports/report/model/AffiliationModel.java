@@ -39,15 +39,8 @@ public class AffiliationModel extends AbstractModel {
 
         userIds = users.resolveCensus();
 
-        debugOut.print("Got " + userIds.size() + " users, resolving");
-
-        int cnt = 0;
-        for (String uid : userIds) {
-            if (cnt++ % 50 == 0) debugOut.print(".");
-            users.getDisplayName(uid);
-            users.getAffiliation(uid);
-        }
-        debugOut.println();
+        debugOut.println("Got " + userIds.size() + " users, resolving.");
+        users.prefetch(userIds);
         debugOut.println("Resolved " + userIds.size() + " users.");
     }
 
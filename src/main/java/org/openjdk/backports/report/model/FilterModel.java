@@ -36,19 +36,23 @@ import java.util.List;
 
 public class FilterModel extends AbstractModel {
 
+    private static final String[] FIELDS = {
+            "components", "Subcomponent",
+    };
+
     private final long filterId;
     private final Multimap<String, Issue> byComponent;
     private final String name;
     private final List<Issue> issues;
 
     public FilterModel(Clients clients, PrintStream debugOut, long filterId) {
-        super(clients, debugOut);
+        super(clients, debugOut, FIELDS);
         this.filterId = filterId;
 
-        Filter filter = searchCli.getFilter(filterId).claim();
+        Filter filter = clients.getFilter(filterId);
         name = filter.getName();
 
-        issues = jiraIssues.getBasicIssues(filter.getJql());
+        issues = jiraIssues.getIssues(filter.getJql(), false);
         issues.sort(DEFAULT_ISSUE_SORT);
 
         byComponent = TreeMultimap.create(String::compareTo, DEFAULT_ISSUE_SORT);
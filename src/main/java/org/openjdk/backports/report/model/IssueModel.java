@@ -42,6 +42,16 @@ import java.util.*;
 
 public class IssueModel extends AbstractModel {
 
+    // Issue and its backports are displayed in full, including release notes.
+    static final String[] FIELDS = {
+            "fixVersions", "versions", "labels", "issuelinks", "subtasks", "comment",
+            "components", "Subcomponent", "resolution", "priority",
+            "description", "reporter", "assignee",
+    };
+
+    // Shenandoah 8u repository: Mercurial one, and its Git conversion.
+    private static final String[] SHENANDOAH_JDK8_REPOS = { "shenandoah/jdk8", "shenandoah-jdk8u" };
+
     private final HgDB hgDB;
 
     private final SortedMap<Integer, List<Issue>> existingPorts = new TreeMap<>();
@@ -60,13 +70,13 @@ public class IssueModel extends AbstractModel {
     private List<String> warnings = new ArrayList<>();
 
     public IssueModel(Clients clients, HgDB hgDB, PrintStream debugOut, String issueId) {
-        super(clients, debugOut);
+        super(clients, debugOut, FIELDS);
         this.hgDB = hgDB;
-        init(issueCli.getIssue(issueId).claim());
+        init(jiraIssues.getIssue(issueId).claim());
     }
 
     public IssueModel(Clients clients, HgDB hgDB, PrintStream debugOut, Issue issue) {
-        super(clients, debugOut);
+        super(clients, debugOut, FIELDS);
         this.hgDB = hgDB;
         init(issue);
     }
@@ -114,12 +124,12 @@ public class IssueModel extends AbstractModel {
             actions.update(Actionable.CRITICAL);
         }
 
+        List<String> linkKeys = backportKeys(issue);
+        jiraIssues.prefetch(linkKeys, false);
+
         List<IssuePromise> links = new ArrayList<>();
-        for (IssueLink link : orEmpty(issue.getIssueLinks())) {
-            if (link.getIssueLinkType().getName().equals("Backport")) {
-                String linkKey = link.getTargetIssueKey();
-                links.add(jiraIssues.getIssue(linkKey));
-            }
+        for (String linkKey : linkKeys) {
+            links.add(jiraIssues.getIssue(linkKey));
         }
         for (IssuePromise p : links) {
             Issue subIssue = p.claim();
@@ -185,17 +195,17 @@ public class IssueModel extends AbstractModel {
             BackportStatus status;
             if (!affectedShenandoah.contains(8)) {
                 status = BackportStatus.NOT_AFFECTED;
-            } else if (!hgDB.hasRepo("shenandoah/jdk8")) {
+            } else if (!hasAnyRepo(SHENANDOAH_JDK8_REPOS)) {
                 actions.update(Actionable.CRITICAL);
-                msg = "No Mercurial data available to judge";
+                msg = "No Mercurial or Git data available to judge";
                 status = BackportStatus.WARNING;
             } else {
-                String nonBackport = tryPrintHg("shenandoah/jdk8", issue.getKey().replaceFirst("JDK-", ""));
+                String nonBackport = tryPrintHg(SHENANDOAH_JDK8_REPOS, issue.getKey().replaceFirst("JDK-", ""));
                 if (nonBackport != null) {
                     msg = nonBackport;
                     status = BackportStatus.FIXED;
                 } else {
-                    String backports = tryPrintHg("shenandoah/jdk8", issue.getKey().replaceFirst("JDK-", "[backport] "));
+                    String backports = tryPrintHg(SHENANDOAH_JDK8_REPOS, issue.getKey().replaceFirst("JDK-", "[backport] "));
                     if (backports != null) {
                         msg = backports;
                         status = BackportStatus.FIXED;
@@ -217,8 +227,30 @@ public class IssueModel extends AbstractModel {
         relNotes = jiraIssues.getReleaseNotes(issue);
     }
 
-    private String tryPrintHg(String repo, String synopsis) {
-        List<HgRecord> rs = hgDB.search(repo, synopsis);
+    static List<String> backportKeys(Issue issue) {
+        List<String> keys = new ArrayList<>();
+        for (IssueLink link : orEmpty(issue.getIssueLinks())) {
+            if (link.getIssueLinkType().getName().equals("Backport")) {
+                keys.add(link.getTargetIssueKey());
+            }
+        }
+        return keys;
+    }
+
+    private boolean hasAnyRepo(String[] repos) {
+        for (String repo : repos) {
+            if (hgDB.hasRepo(repo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String tryPrintHg(String[] repos, String synopsis) {
+        List<HgRecord> rs = new ArrayList<>();
+        for (String repo : repos) {
+            rs.addAll(hgDB.search(repo, synopsis));
+        }
         if (rs.isEmpty()) {
             return null;
         }
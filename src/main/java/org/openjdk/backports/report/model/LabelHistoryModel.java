@@ -32,29 +32,45 @@ import org.openjdk.backports.jira.Clients;
 import org.openjdk.backports.jira.UserCache;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
 public class LabelHistoryModel extends AbstractModel {
 
+    private static final String[] FIELDS = {
+            "labels", "reporter",
+    };
+
     private final String label;
     private final SortedSet<Record> set;
 
     public LabelHistoryModel(Clients clients, PrintStream debugOut, String label) {
-        super(clients, debugOut);
+        super(clients, debugOut, FIELDS);
         this.label = label;
 
         List<Issue> found = jiraIssues.getIssues("labels = " + label +
                 " AND type != Backport", true);
 
-        set = new TreeSet<>();
+        // Find out who updated the label first, then resolve all users at once.
+        List<Record> updates = new ArrayList<>();
+        Set<String> userIds = new HashSet<>();
         for (Issue i : found) {
             Record rd = findUpdate(i);
             if (rd != null) {
-                set.add(rd);
+                updates.add(rd);
+                userIds.add(rd.user);
             }
         }
+        users.prefetch(userIds);
+
+        set = new TreeSet<>();
+        for (Record rd : updates) {
+            set.add(new Record(users.getDisplayName(rd.user), rd.date, rd.issue));
+        }
     }
 
     private Record findUpdate(Issue i) {
@@ -67,7 +83,7 @@ public class LabelHistoryModel extends AbstractModel {
                     boolean noFrom = item.getFromString() == null || !item.getFromString().contains(label);
                     boolean yesTo = item.getToString() != null && item.getToString().contains(label);
                     if (noFrom && yesTo) {
-                        return new Record(users.getDisplayName(cg.getAuthor().getName()), cg.getCreated(), i);
+                        return new Record(cg.getAuthor().getName(), cg.getCreated(), i);
                     }
                 }
             }
@@ -75,7 +91,7 @@ public class LabelHistoryModel extends AbstractModel {
 
         // No hits in changelog? Maybe it was filed with the label right away:
         if (i.getLabels().contains(label)) {
-            return new Record(users.getDisplayName(i.getReporter().getName()), i.getCreationDate(), i);
+            return new Record(i.getReporter().getName(), i.getCreationDate(), i);
         }
 
         return null;
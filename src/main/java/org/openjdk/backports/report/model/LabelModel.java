@@ -31,14 +31,15 @@ import org.openjdk.backports.hg.HgDB;
 import org.openjdk.backports.jira.Clients;
 
 import java.io.PrintStream;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class LabelModel extends AbstractModel {
 
+    // Prefetch backports of the arriving issues in groups about this large.
+    private static final int PREFETCH_SIZE = 50;
+
     private final String label;
     private final Actionable minLevel;
     private final List<IssueModel> models;
@@ -47,11 +48,11 @@ public class LabelModel extends AbstractModel {
     private final Integer minVersion;
 
     public LabelModel(Clients cli, HgDB hgDB, PrintStream debugOut, Actionable minLevel, String label) {
-        super(cli, debugOut);
+        super(cli, debugOut, IssueModel.FIELDS);
         this.label = label;
         this.minLevel = minLevel;
 
-        List<Issue> found = jiraIssues.getIssues("labels = " + label +
+        Iterator<Issue> found = jiraIssues.streamIssues("labels = " + label +
                 " AND (status in (Closed, Resolved))" +
                 " AND (resolution not in (\"Won't Fix\", Duplicate, \"Cannot Reproduce\", \"Not an Issue\", Withdrawn, Other))" +
                 " AND type != Backport",
@@ -64,8 +65,27 @@ public class LabelModel extends AbstractModel {
                 .thenComparing(Comparator.comparing(IssueModel::daysAgo).reversed())
                 .thenComparing(IssueModel::issueKey);
 
-        models = found.parallelStream()
-                .map(i -> new IssueModel(cli, hgDB, debugOut, i))
+        // Build the issue models as soon as issues arrive, while later pages are still loading.
+        // Prefetch their backports first, so that models find them in batches.
+        List<CompletableFuture<IssueModel>> futures = new ArrayList<>();
+        List<Issue> arrived = new ArrayList<>();
+        List<String> backports = new ArrayList<>();
+        while (found.hasNext()) {
+            Issue i = found.next();
+            arrived.add(i);
+            backports.addAll(IssueModel.backportKeys(i));
+            if (backports.size() >= PREFETCH_SIZE || !found.hasNext()) {
+                jiraIssues.prefetch(backports, false);
+                for (Issue a : arrived) {
+                    futures.add(CompletableFuture.supplyAsync(() -> new IssueModel(cli, hgDB, debugOut, a)));
+                }
+                arrived.clear();
+                backports.clear();
+            }
+        }
+
+        models = futures.stream()
+                .map(CompletableFuture::join)
                 .filter(im -> im.actions().getActionable().ordinal() >= minLevel.ordinal())
                 .sorted(comparator)
                 .collect(Collectors.toList());
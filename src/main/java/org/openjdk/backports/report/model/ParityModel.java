@@ -38,6 +38,11 @@ import java.util.*;
 
 public class ParityModel extends AbstractModel {
 
+    private static final String[] FIELDS = {
+            "fixVersions", "labels", "issuelinks", "components", "Subcomponent",
+            "resolution", "resolutiondate",
+    };
+
     private final int majorVer;
     private final SortedMap<Issue, SingleVers> exactOpenFirst;
     private final SortedMap<Issue, SingleVers> exactOracleFirst;
@@ -50,14 +55,14 @@ public class ParityModel extends AbstractModel {
     private int versLen;
 
     public ParityModel(Clients clients, PrintStream debugOut, int majorVer) {
-        super(clients, debugOut);
+        super(clients, debugOut, FIELDS);
         this.majorVer = majorVer;
 
         Multimap<Issue, Issue> mp = HashMultimap.create();
 
         List<String> vers = new ArrayList<>();
 
-        Project proj = jiraCli.getProjectClient().getProject("JDK").claim();
+        Project proj = clients.getProject("JDK");
         for (Version ver : proj.getVersions()) {
             String v = ver.getName();
             if (Versions.parseMajor(v) != majorVer) continue;
@@ -133,16 +138,17 @@ public class ParityModel extends AbstractModel {
                 }
 
                 for (String fv : Accessors.getFixVersions(subIssue)) {
-                    if (Versions.parseMajor(fv) != majorVer) {
+                    JdkVersion ver = JdkVersion.of(fv);
+                    if (ver.getMajor() != majorVer) {
                         // Not the release we are looking for
                         continue;
                     }
-                    if (Versions.isShared(fv)) {
+                    if (ver.isShared()) {
                         isShared = true;
                     }
 
                     String sub = Versions.stripVendor(fv);
-                    if (Versions.isOracle(fv)) {
+                    if (ver.isOracle()) {
                         if (firstOracle == null) {
                             firstOracle = sub;
                             firstOracleRaw = fv;
@@ -193,7 +199,7 @@ public class ParityModel extends AbstractModel {
 
                 boolean backportRequested = p.getLabels().contains("jdk" + majorVer + "u-fix-request");
                 String interestTags = InterestTags.shortTags(p.getLabels());
-                Collection<String> reviewLinks = Accessors.getReviewURLs(rawRest, p, majorVer);
+                Collection<String> reviewLinks = Accessors.getReviewURLs(limiter, rawRest, p, majorVer);
                 map.put(p, new SingleVersMetadata(firstOracleRaw, interestTags, backportRequested, reviewLinks));
             }
 
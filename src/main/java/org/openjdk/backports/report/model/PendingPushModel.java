@@ -38,7 +38,7 @@ public class PendingPushModel extends AbstractModel {
     private final List<IssueModel> models;
 
     public PendingPushModel(Clients clients, HgDB hgDB, PrintStream debugOut, String release) {
-        super(clients, debugOut);
+        super(clients, debugOut, IssueModel.FIELDS);
         this.release = release;
 
         String query = "labels = jdk" + release + "u-fix-yes AND labels != openjdk-na AND fixVersion !~ '" + release + ".*'";
@@ -55,6 +55,12 @@ public class PendingPushModel extends AbstractModel {
         List<Issue> found = jiraIssues.getIssues(query, false);
         found.sort(DEFAULT_ISSUE_SORT);
 
+        List<String> backports = new ArrayList<>();
+        for (Issue i : found) {
+            backports.addAll(IssueModel.backportKeys(i));
+        }
+        jiraIssues.prefetch(backports, false);
+
         models = new ArrayList<>();
         for (Issue i : found) {
             models.add(new IssueModel(clients, hgDB, debugOut, i));
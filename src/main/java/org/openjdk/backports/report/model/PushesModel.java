@@ -36,6 +36,10 @@ import java.util.*;
 
 public class PushesModel extends AbstractModel {
 
+    private static final String[] FIELDS = {
+            "comment", "issuelinks", "components", "Subcomponent", "priority",
+    };
+
     private final boolean directOnly;
     private final String release;
     private final List<Issue> issues;
@@ -48,7 +52,7 @@ public class PushesModel extends AbstractModel {
     private final SortedSet<Issue> noChangesets;
 
     public PushesModel(Clients clients, PrintStream debugOut, boolean directOnly, String release) {
-        super(clients, debugOut);
+        super(clients, debugOut, FIELDS);
         this.directOnly = directOnly;
         this.release = release;
         this.issues = jiraIssues.getIssues("project = JDK" +
@@ -95,6 +99,12 @@ public class PushesModel extends AbstractModel {
             debugOut.printf(" %s: %s%n", i.getKey(), i.getSummary());
         }
         debugOut.println(byPriority.size() + " pushes left.");
+
+        // Reports print the names and affiliations for all committers, resolve them all now.
+        Set<String> committers = new HashSet<>();
+        committers.addAll(byCommitter.keySet());
+        committers.addAll(byOriginalCommitter.keySet());
+        users.prefetch(committers);
     }
 
     public String release() {
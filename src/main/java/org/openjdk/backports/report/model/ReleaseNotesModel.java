@@ -37,6 +37,11 @@ import java.util.*;
 
 public class ReleaseNotesModel extends AbstractModel {
 
+    private static final String[] FIELDS = {
+            "fixVersions", "labels", "issuelinks", "subtasks", "components", "Subcomponent",
+            "resolution", "priority", "description",
+    };
+
     private final String release;
     private final boolean includeCarryovers;
     private final List<Issue> jepIssues;
@@ -45,7 +50,7 @@ public class ReleaseNotesModel extends AbstractModel {
     private final SortedSet<Issue> carriedOver;
 
     public ReleaseNotesModel(Clients clients, PrintStream debugOut, boolean includeCarryovers, String release) {
-        super(clients, debugOut);
+        super(clients, debugOut, FIELDS);
         this.release = release;
         this.includeCarryovers = includeCarryovers;
 
@@ -52,15 +52,12 @@ public class AffiliationTextReport extends AbstractTextReport {
         UserCache users = model.users();
 
         // Get all data and compute column widths
-        int maxUid = 0;
+        int maxUid = 1;
         for (String uid : userIds) {
-            users.getDisplayName(uid);
-            users.getAffiliation(uid);
             maxUid = Math.max(maxUid, uid.length());
         }
-
-        int maxDisplayName = users.maxDisplayName();
-        int maxAffiliation = users.maxAffiliation();
+        int maxDisplayName = users.maxDisplayName(userIds);
+        int maxAffiliation = users.maxAffiliation(userIds);
         for (String uid : userIds) {
             out.printf("%" + maxUid + "s, %" + maxDisplayName + "s, %" + maxAffiliation + "s%n",
                     uid, users.getDisplayName(uid), users.getAffiliation(uid));
@@ -48,8 +48,13 @@ public class LabelHistoryTextReport extends AbstractTextReport {
         out.println("Report generated: " + new Date());
         out.println();
 
+        int maxDisplayName = 1;
         for (LabelHistoryModel.Record r : model.records()) {
-            out.printf("%10s, %" + model.users().maxDisplayName() + "s, %s: %s%n",
+            maxDisplayName = Math.max(maxDisplayName, r.user.length());
+        }
+
+        for (LabelHistoryModel.Record r : model.records()) {
+            out.printf("%10s, %" + maxDisplayName + "s, %s: %s%n",
                     r.date.toLocalDate().toString(),
                     r.user,
                     r.issue.getKey(),
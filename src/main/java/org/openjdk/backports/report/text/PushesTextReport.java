@@ -33,7 +33,9 @@ import org.openjdk.backports.report.model.PushesModel;
 import java.io.PrintStream;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 public class PushesTextReport extends AbstractTextReport {
@@ -128,9 +130,15 @@ public class PushesTextReport extends AbstractTextReport {
 
         out.println("Chronological push log:");
         out.println();
+        Set<String> pushUsers = new HashSet<>();
+        for (Issue i : model.byTime()) {
+            pushUsers.add(Accessors.getPushUser(i));
+        }
+        int maxDisplayName = users.maxDisplayName(pushUsers);
+        int maxAffiliation = users.maxAffiliation(pushUsers);
         for (Issue i : model.byTime()) {
             String pushUser = Accessors.getPushUser(i);
-            out.printf("  %3d day(s) ago, %" + users.maxDisplayName() + "s, %" + users.maxAffiliation() + "s, %s: %s%n",
+            out.printf("  %3d day(s) ago, %" + maxDisplayName + "s, %" + maxAffiliation + "s, %s: %s%n",
                     TimeUnit.SECONDS.toDays(Accessors.getPushSecondsAgo(i)),
                     users.getDisplayName(pushUser), users.getAffiliation(pushUser),
                     i.getKey(), i.getSummary());
@@ -0,0 +1,52 @@
+package org.openjdk.backports;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.backports.jira.AffiliationClassifier;
+
+import java.util.Arrays;
+
+public class AffiliationClassifierTest {
+
+    @Test
+    public void testDefaults() {
+        AffiliationClassifier c = AffiliationClassifier.defaults();
+        Assert.assertEquals("Red Hat",     c.classify("Joe Random", "@redhat.com"));
+        Assert.assertEquals("Tencent",     c.classify("Joe Random", "@global.tencent.com"));
+        Assert.assertEquals("IBM",         c.classify("Joe Random", "@ibm.com"));
+        Assert.assertEquals("IBM",         c.classify("Joe Random", "@linux.vnet.ibm.com"));
+        Assert.assertEquals("Oracle",      c.classify("Joe Random", "@us.oracle.com"));
+        Assert.assertEquals("Amazon",      c.classify("Joe Random", "@ip-10-0-0-1.ec2.compute.internal"));
+        Assert.assertEquals("Independent", c.classify("Joe Random", "@gmail.com"));
+        Assert.assertEquals("SAP",         c.classify("Thomas Stuefe", "@gmail.com"));
+        Assert.assertEquals("Red Hat",     c.classify("Thomas Stuefe", "@redhat.com"));
+        Assert.assertEquals("@example.org", c.classify("Joe Random", "@example.org"));
+        Assert.assertEquals("@xibm.com",   c.classify("Joe Random", "@xibm.com"));
+    }
+
+    @Test
+    public void testRules() {
+        AffiliationClassifier c = AffiliationClassifier.parse(Arrays.asList(
+                "# comment",
+                "",
+                "domain example.com = Example",
+                "suffix example.com = Example Group",
+                "suffix dev.example.com = Example Dev",
+                "name Jane Doe = Doe Inc",
+                "independent example.org"
+        ));
+        Assert.assertEquals("Example",       c.classify("x", "@example.com"));
+        Assert.assertEquals("Example",       c.classify("x", "@EXAMPLE.com"));
+        Assert.assertEquals("Example Group", c.classify("x", "@eu.example.com"));
+        Assert.assertEquals("Example Dev",   c.classify("x", "@a.dev.example.com"));
+        Assert.assertEquals("Doe Inc",       c.classify("Jane Doe", "@example.org"));
+        Assert.assertEquals("Independent",   c.classify("x", "@example.org"));
+        Assert.assertEquals("@sub.example.org", c.classify("x", "@sub.example.org"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownRule() {
+        AffiliationClassifier.parse(Arrays.asList("company example.com = Example"));
+    }
+
+}
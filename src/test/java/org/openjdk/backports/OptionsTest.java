@@ -0,0 +1,95 @@
+package org.openjdk.backports;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class OptionsTest {
+
+    @Test
+    public void splitArgs() {
+        Assert.assertEquals(Arrays.asList("--label", "jdk11u-fix-request"),
+                Options.splitArgs("  --label \t jdk11u-fix-request "));
+        Assert.assertEquals(Arrays.asList("--output-prefix", "my reports/label"),
+                Options.splitArgs("--output-prefix \"my reports/label\""));
+        Assert.assertEquals(Arrays.asList("--output-prefix", "my reports/label"),
+                Options.splitArgs("--output-prefix 'my reports'/label"));
+        Assert.assertEquals(Arrays.asList("--output-prefix", "my reports"),
+                Options.splitArgs("--output-prefix my\\ reports"));
+        Assert.assertEquals(Arrays.asList("a\"b", "c\\d", "e\\f"),
+                Options.splitArgs("\"a\\\"b\" 'c\\d' \"e\\f\""));
+        Assert.assertEquals(Collections.singletonList(""), Options.splitArgs("''"));
+        Assert.assertEquals(Collections.emptyList(), Options.splitArgs(""));
+        Assert.assertNull(Options.splitArgs("--output-prefix \"my reports"));
+        Assert.assertNull(Options.splitArgs("--output-prefix 'my reports"));
+    }
+
+    @Test
+    public void readBatch() throws Exception {
+        List<Options> specs = readBatch(
+                "# comment",
+                "",
+                "--label jdk11u-fix-request --output-prefix \"label jdk11u\"",
+                "--pushes 17.0.1 --direct-only");
+        Assert.assertNotNull(specs);
+        Assert.assertEquals(2, specs.size());
+        Assert.assertEquals("jdk11u-fix-request", specs.get(0).getLabelReport());
+        Assert.assertEquals("label jdk11u", specs.get(0).getLogPrefix());
+        Assert.assertEquals("17.0.1", specs.get(1).getPushesReport());
+    }
+
+    @Test
+    public void readBatchRejectsGlobalOptions() throws Exception {
+        Assert.assertNull(readBatch("--label jdk11u-fix-request --cache-dir cache"));
+        Assert.assertNull(readBatch("--label jdk11u-fix-request --max-connections 10"));
+        Assert.assertNull(readBatch("--issue JDK-8000000 --hg-repos /tmp/jdk"));
+    }
+
+    @Test
+    public void readBatchRejectsBrokenLines() throws Exception {
+        Assert.assertNull(readBatch("--label \"jdk11u-fix-request"));
+        Assert.assertNull(readBatch("--label jdk11u-fix-request", "--label jdk17u-fix-request"));
+    }
+
+    @Test
+    public void readBatchRejectsNestedBatch() throws Exception {
+        Assert.assertNull(readBatch("--label jdk11u-fix-request --batch other.txt"));
+    }
+
+    @Test
+    public void batchRejectsReportOptions() throws Exception {
+        File file = File.createTempFile("batch", ".txt");
+        try {
+            Files.write(file.toPath(), Collections.singletonList("--label jdk11u-fix-request"), StandardCharsets.UTF_8);
+            String batch = file.getAbsolutePath();
+
+            Assert.assertFalse(new Options(new String[] { "--label", "jdk17u-fix-request", "--batch", batch }).parse());
+            Assert.assertFalse(new Options(new String[] { "--batch", batch, "--output-prefix", "report" }).parse());
+
+            Options options = new Options(new String[] { "--batch", batch, "--batch-threads", "2", "--max-connections", "10" });
+            Assert.assertTrue(options.parse());
+            Assert.assertEquals(1, options.getBatch().size());
+            Assert.assertEquals("jdk11u-fix-request", options.getBatch().get(0).getLabelReport());
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static List<Options> readBatch(String... lines) throws Exception {
+        File file = File.createTempFile("batch", ".txt");
+        try {
+            Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+            Options options = new Options(new String[] { "--batch", file.getAbsolutePath() });
+            return options.parse() ? options.getBatch() : null;
+        } finally {
+            file.delete();
+        }
+    }
+
+}
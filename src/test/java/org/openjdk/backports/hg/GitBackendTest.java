@@ -0,0 +1,79 @@
+package org.openjdk.backports.hg;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GitBackendTest {
+
+    private static final String REMOTE = "https://github.com/openjdk/shenandoah-jdk8u";
+
+    @Test
+    public void webURL() {
+        Assert.assertEquals(REMOTE, GitBackend.toWebURL("https://github.com/openjdk/shenandoah-jdk8u.git"));
+        Assert.assertEquals(REMOTE, GitBackend.toWebURL("https://github.com/openjdk/shenandoah-jdk8u"));
+        Assert.assertEquals(REMOTE, GitBackend.toWebURL("git@github.com:openjdk/shenandoah-jdk8u.git"));
+        Assert.assertEquals(REMOTE, GitBackend.toWebURL("git@github.com:openjdk/shenandoah-jdk8u"));
+    }
+
+    private static List<HgRecord> parse(String... lines) {
+        List<HgRecord> records = new ArrayList<>();
+        GitBackend.CommitParser parser = new GitBackend.CommitParser(REMOTE, records::add);
+        for (String line : lines) {
+            parser.line(line);
+        }
+        parser.flush();
+        return records;
+    }
+
+    @Test
+    public void commits() {
+        List<HgRecord> records = parse(
+                "\u001eaaaa\u0000Joe Random",
+                "8000001: First fix",
+                "",
+                "Reviewed-by: duke",
+                "",
+                "\u001ebbbb\u0000Jane Doe",
+                "8000002: Second fix",
+                "  Another line  ");
+
+        Assert.assertEquals(2, records.size());
+
+        HgRecord first = records.get(0);
+        Assert.assertEquals(REMOTE, first.repo);
+        Assert.assertEquals("aaaa", first.hash);
+        Assert.assertEquals("Joe Random", first.author);
+        Assert.assertEquals(REMOTE + "/commit/aaaa", first.url);
+        Assert.assertEquals(Arrays.asList("8000001: First fix", "Reviewed-by: duke"), Arrays.asList(first.synopsis));
+
+        HgRecord second = records.get(1);
+        Assert.assertEquals("bbbb", second.hash);
+        Assert.assertEquals("Jane Doe", second.author);
+        Assert.assertEquals(Arrays.asList("8000002: Second fix", "Another line"), Arrays.asList(second.synopsis));
+    }
+
+    @Test
+    public void backports() {
+        List<HgRecord> records = parse(
+                "\u001ecccc\u0000Joe Random",
+                "8000003: Backported fix",
+                "",
+                "Backport-of: 0123456789abcdef");
+
+        Assert.assertEquals(1, records.size());
+        HgRecord r = records.get(0);
+        Assert.assertTrue(r.synopsisStartsWith("8000003"));
+        Assert.assertTrue(r.synopsisStartsWith("[backport] 8000003"));
+    }
+
+    @Test
+    public void noCommits() {
+        Assert.assertEquals(0, parse().size());
+        Assert.assertEquals(0, parse("stray line before any commit").size());
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.openjdk.backports.jira;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrencyLimiterTest {
+
+    @Test(timeout = 30_000)
+    public void interruptedAcquireTakesNoSlot() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1);
+        ConcurrencyLimiter.Ticket held = limiter.acquire(ConcurrencyLimiter.Kind.ISSUE);
+
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        AtomicReference<Boolean> interrupted = new AtomicReference<>();
+        Thread t = new Thread(() -> {
+            try {
+                limiter.acquire(ConcurrencyLimiter.Kind.ISSUE);
+            } catch (Throwable e) {
+                thrown.set(e);
+            }
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        t.start();
+        t.interrupt();
+        t.join();
+
+        Assert.assertTrue(thrown.get() instanceof RestClientException);
+        Assert.assertTrue(interrupted.get());
+
+        // Interrupted thread took nothing: once the held slot is released,
+        // the next acquire gets the single slot right away.
+        held.success();
+        ExecutorService e = Executors.newSingleThreadExecutor();
+        try {
+            Future<ConcurrencyLimiter.Ticket> next = e.submit(() -> limiter.acquire(ConcurrencyLimiter.Kind.ISSUE));
+            next.get(10, TimeUnit.SECONDS).success();
+        } finally {
+            e.shutdownNow();
+        }
+    }
+
+    // Runs a limit-worth of requests of given kind, all completing after given latency.
+    private static void round(ConcurrencyLimiter limiter, AtomicLong clock, ConcurrencyLimiter.Kind kind, long latencyMs) {
+        List<ConcurrencyLimiter.Ticket> tickets = new ArrayList<>();
+        int n = limiter.getLimit();
+        for (int i = 0; i < n; i++) {
+            tickets.add(limiter.acquire(kind));
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+        for (ConcurrencyLimiter.Ticket t : tickets) {
+            t.success();
+        }
+    }
+
+    @Test
+    public void mixedRequestSizesDoNotCollapseLimit() {
+        AtomicLong clock = new AtomicLong();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(64, clock::get);
+        int initial = limiter.getLimit();
+
+        // Runs of cheap user and issue GETs, followed by expensive search pages
+        // and batches. Every kind is served at its own stable latency.
+        for (int r = 0; r < 20; r++) {
+            round(limiter, clock, ConcurrencyLimiter.Kind.USER, 20);
+            round(limiter, clock, ConcurrencyLimiter.Kind.ISSUE, 30);
+            round(limiter, clock, ConcurrencyLimiter.Kind.SEARCH, 800);
+            round(limiter, clock, ConcurrencyLimiter.Kind.BATCH, 2000);
+        }
+
+        Assert.assertTrue("Limit should grow: " + limiter.getLimit(), limiter.getLimit() > initial);
+    }
+
+    @Test
+    public void spikeWithinKindShrinksLimit() {
+        AtomicLong clock = new AtomicLong();
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(64, clock::get);
+
+        for (int r = 0; r < 20; r++) {
+            round(limiter, clock, ConcurrencyLimiter.Kind.SEARCH, 800);
+        }
+        int before = limiter.getLimit();
+
+        round(limiter, clock, ConcurrencyLimiter.Kind.SEARCH, 8000);
+
+        Assert.assertTrue("Limit should shrink: " + before + " -> " + limiter.getLimit(), limiter.getLimit() < before);
+    }
+
+}
@@ -0,0 +1,614 @@
+package org.openjdk.backports.jira;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in JIRA server for tests. Serves synthetic OpenJDK-like issues: the original
+ * issues, each with a few backports linked to it. Only the REST endpoints the monitor
+ * uses are implemented. JQL is not parsed, except "key in (...)": any other query
+ * matches all original issues. Latency, server errors and throttling can be injected
+ * to see how the client behaves under pressure.
+ */
+public class FakeJira implements AutoCloseable {
+
+    private static final String API = "/rest/api/latest/";
+    private static final String SELF = "http://localhost" + API;
+    private static final String PROJECT = "JDK";
+    private static final String SUBCOMPONENT_ID = "customfield_10008";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'+0000'");
+
+    private static final String[] RELEASES = { "25", "21", "17", "11" };
+    private static final String[] COMPONENTS = { "hotspot", "core-libs", "client-libs", "security-libs" };
+    private static final String[] SUBCOMPONENTS = { "gc", "compiler", "runtime", "java.lang", "java.net" };
+    private static final int USERS = 10;
+
+    private final Map<String, JSONObject> issues = new LinkedHashMap<>();
+    private final List<String> originals = new ArrayList<>();
+    private final Map<String, List<String>> backports = new HashMap<>();
+    private final Set<String> versions = new TreeSet<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private volatile long latencyMs;
+    private volatile double errorRate;
+    private volatile double throttleRate;
+    private volatile int maxConcurrent;
+    private volatile int retryAfterSec = 1;
+    private volatile int maxResults = 1000;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * Generates the issue graph. The same seed gives the same graph.
+     *
+     * @param count number of original issues
+     * @param seed random seed
+     */
+    public FakeJira(int count, long seed) {
+        Random r = new Random(seed);
+        int nextId = 8_000_000;
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        for (int i = 0; i < count; i++) {
+            String key = PROJECT + "-" + (nextId++);
+            int rel = r.nextInt(RELEASES.length - 1);
+            LocalDateTime created = base.plusHours(r.nextInt(24 * 365));
+            String component = COMPONENTS[r.nextInt(COMPONENTS.length)];
+            String subcomponent = SUBCOMPONENTS[r.nextInt(SUBCOMPONENTS.length)];
+
+            // Older releases get the backports.
+            List<String> bps = new ArrayList<>();
+            for (int b = rel + 1; b < RELEASES.length; b++) {
+                if (r.nextInt(3) != 0) {
+                    continue;
+                }
+                String bpKey = PROJECT + "-" + (nextId++);
+                String ver = RELEASES[b] + ".0." + (1 + r.nextInt(8));
+                JSONObject bp = issue(bpKey, "Backport", "Backport of " + key, ver, component, subcomponent,
+                        Collections.emptyList(), created.plusDays(1 + r.nextInt(60)), r);
+                bp.getJSONObject("fields").getJSONArray("issuelinks").put(link(key, true));
+                issues.put(bpKey, bp);
+                bps.add(bpKey);
+            }
+
+            List<String> labels = new ArrayList<>();
+            for (String bpKey : bps) {
+                String ver = issues.get(bpKey).getJSONObject("fields").getJSONArray("fixVersions").getJSONObject(0).getString("name");
+                labels.add("jdk" + ver.substring(0, ver.indexOf('.')) + "u-fix-yes");
+            }
+
+            JSONObject orig = issue(key, r.nextBoolean() ? "Bug" : "Enhancement", "Synthetic issue " + key,
+                    RELEASES[rel], component, subcomponent, labels, created, r);
+            for (String bpKey : bps) {
+                orig.getJSONObject("fields").getJSONArray("issuelinks").put(link(bpKey, false));
+            }
+            issues.put(key, orig);
+            originals.add(key);
+            backports.put(key, bps);
+        }
+    }
+
+    public void setLatency(long ms) {
+        this.latencyMs = ms;
+    }
+
+    public void setErrorRate(double rate) {
+        this.errorRate = rate;
+    }
+
+    public void setThrottleRate(double rate) {
+        this.throttleRate = rate;
+    }
+
+    /**
+     * Throttles the requests over this concurrency, as overloaded server would do.
+     *
+     * @param max max concurrent requests, 0 for unlimited
+     */
+    public void setMaxConcurrent(int max) {
+        this.maxConcurrent = max;
+    }
+
+    public void setRetryAfter(int sec) {
+        this.retryAfterSec = sec;
+    }
+
+    public void setMaxResults(int max) {
+        this.maxResults = max;
+    }
+
+    public URI start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "Fake JIRA");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext(API, this::handle);
+        server.start();
+        return getURI();
+    }
+
+    public URI getURI() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    public List<String> getOriginalKeys() {
+        return Collections.unmodifiableList(originals);
+    }
+
+    public List<String> getBackportKeys(String key) {
+        return Collections.unmodifiableList(backports.getOrDefault(key, Collections.emptyList()));
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getThrottled() {
+        return throttled.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    public int getPeakConcurrency() {
+        return peakInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        int now = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(now, Math::max);
+        requests.incrementAndGet();
+        try {
+            if (latencyMs > 0) {
+                TimeUnit.MILLISECONDS.sleep(latencyMs);
+            }
+
+            ThreadLocalRandom r = ThreadLocalRandom.current();
+            int max = maxConcurrent;
+            if ((max > 0 && now > max) || r.nextDouble() < throttleRate) {
+                throttled.incrementAndGet();
+                ex.getResponseHeaders().add("Retry-After", String.valueOf(retryAfterSec));
+                send(ex, 429, error("Rate limit exceeded"));
+                return;
+            }
+            if (r.nextDouble() < errorRate) {
+                errors.incrementAndGet();
+                send(ex, 500, error("Injected server error"));
+                return;
+            }
+
+            String path = ex.getRequestURI().getPath().substring(API.length());
+            Map<String, String> params = params(ex.getRequestURI().getRawQuery());
+            String[] parts = path.split("/");
+
+            Object reply = null;
+            switch (parts[0]) {
+                case "field":
+                    reply = fields();
+                    break;
+                case "search":
+                    reply = search(params);
+                    break;
+                case "issue":
+                    if (parts.length == 2) {
+                        reply = issue(parts[1], params);
+                    } else if (parts.length == 3 && parts[2].equals("remotelink")) {
+                        reply = remoteLinks(parts[1]);
+                    }
+                    break;
+                case "user":
+                    reply = user(params.get("username"));
+                    break;
+                case "project":
+                    if (parts.length == 2 && parts[1].equals(PROJECT)) {
+                        reply = project();
+                    }
+                    break;
+                case "filter":
+                    if (parts.length == 2) {
+                        reply = filter(parts[1]);
+                    }
+                    break;
+            }
+
+            if (reply != null) {
+                send(ex, 200, reply.toString());
+            } else {
+                send(ex, 404, error("Not found: " + path));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            ex.close();
+        }
+    }
+
+    private static void send(HttpExchange ex, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().add("Content-Type", "application/json;charset=UTF-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static String error(String msg) {
+        return new JSONObject()
+                .put("errorMessages", new JSONArray().put(msg))
+                .put("errors", new JSONObject())
+                .toString();
+    }
+
+    private static Map<String, String> params(String query) throws UnsupportedEncodingException {
+        Map<String, String> res = new HashMap<>();
+        if (query != null) {
+            for (String p : query.split("&")) {
+                int eq = p.indexOf('=');
+                if (eq > 0) {
+                    res.put(URLDecoder.decode(p.substring(0, eq), "UTF-8"), URLDecoder.decode(p.substring(eq + 1), "UTF-8"));
+                }
+            }
+        }
+        return res;
+    }
+
+    private JSONObject search(Map<String, String> params) {
+        String jql = params.getOrDefault("jql", "");
+        int startAt = Integer.parseInt(params.getOrDefault("startAt", "0"));
+        int max = Math.min(maxResults, Integer.parseInt(params.getOrDefault("maxResults", "50")));
+
+        List<String> keys;
+        String q = jql.trim();
+        if (q.startsWith("key in (") && q.endsWith(")")) {
+            keys = new ArrayList<>();
+            for (String k : q.substring("key in (".length(), q.length() - 1).split(",")) {
+                if (issues.containsKey(k.trim())) {
+                    keys.add(k.trim());
+                }
+            }
+        } else {
+            keys = originals;
+        }
+
+        JSONArray arr = new JSONArray();
+        for (int i = startAt; i < Math.min(keys.size(), startAt + max); i++) {
+            arr.put(withFields(issues.get(keys.get(i)), params));
+        }
+
+        return new JSONObject()
+                .put("expand", "names,schema")
+                .put("startAt", startAt)
+                .put("maxResults", max)
+                .put("total", keys.size())
+                .put("issues", arr)
+                .put("names", names())
+                .put("schema", schema());
+    }
+
+    private JSONObject issue(String key, Map<String, String> params) {
+        JSONObject issue = issues.get(key);
+        if (issue == null) {
+            return null;
+        }
+        return withFields(issue, params)
+                .put("names", names())
+                .put("schema", schema());
+    }
+
+    // Leaves only the requested fields, and changelog if requested.
+    private JSONObject withFields(JSONObject issue, Map<String, String> params) {
+        JSONObject fields = issue.getJSONObject("fields");
+        String fieldsParam = params.get("fields");
+        JSONObject projected = new JSONObject();
+        if (fieldsParam == null || fieldsParam.contains("*all")) {
+            projected = new JSONObject(fields.toString());
+        } else {
+            for (String f : fieldsParam.split(",")) {
+                if (fields.has(f)) {
+                    projected.put(f, fields.get(f));
+                }
+            }
+        }
+
+        JSONObject res = new JSONObject()
+                .put("expand", params.getOrDefault("expand", ""))
+                .put("id", issue.getString("id"))
+                .put("self", issue.getString("self"))
+                .put("key", issue.getString("key"))
+                .put("fields", projected);
+        if (params.getOrDefault("expand", "").contains("changelog")) {
+            res.put("changelog", new JSONObject()
+                    .put("startAt", 0)
+                    .put("maxResults", 0)
+                    .put("total", 0)
+                    .put("histories", new JSONArray()));
+        }
+        return res;
+    }
+
+    private JSONArray remoteLinks(String key) {
+        if (!issues.containsKey(key)) {
+            return null;
+        }
+        JSONArray arr = new JSONArray();
+        if (!backports.containsKey(key)) {
+            // Backports are pushed somewhere.
+            arr.put(new JSONObject()
+                    .put("id", key.hashCode() & 0xFFFF)
+                    .put("object", new JSONObject()
+                            .put("url", "https://git.openjdk.org/jdk-updates/commit/" + Integer.toHexString(key.hashCode()))
+                            .put("title", "Commit")));
+        }
+        return arr;
+    }
+
+    private JSONObject user(String name) {
+        if (name == null || !name.startsWith("user")) {
+            return null;
+        }
+        try {
+            int id = Integer.parseInt(name.substring("user".length()));
+            if (id < 0 || id >= USERS) {
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return userJSON(name)
+                .put("emailAddress", name + "@example.com")
+                .put("active", true)
+                .put("timeZone", "UTC")
+                .put("groups", new JSONObject().put("size", 0).put("items", new JSONArray()));
+    }
+
+    private JSONObject project() {
+        JSONArray vers = new JSONArray();
+        int id = 10000;
+        for (String v : versions) {
+            vers.put(version(v, id++));
+        }
+        return new JSONObject()
+                .put("expand", "description,lead,url,projectKeys")
+                .put("self", SELF + "project/" + PROJECT)
+                .put("id", "10100")
+                .put("key", PROJECT)
+                .put("name", "JDK")
+                .put("description", "")
+                .put("lead", userJSON("user0"))
+                .put("components", new JSONArray())
+                .put("issueTypes", new JSONArray())
+                .put("versions", vers)
+                .put("roles", new JSONObject());
+    }
+
+    private JSONObject filter(String id) {
+        try {
+            Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        String self = SELF + "filter/" + id;
+        return new JSONObject()
+                .put("self", self)
+                .put("id", id)
+                .put("name", "Synthetic filter " + id)
+                .put("description", "")
+                .put("owner", userJSON("user0"))
+                .put("jql", "project = " + PROJECT)
+                .put("viewUrl", "http://localhost/issues/?filter=" + id)
+                .put("searchUrl", SELF + "search?jql=project+%3D+" + PROJECT)
+                .put("favourite", false);
+    }
+
+    private JSONArray fields() {
+        JSONArray arr = new JSONArray();
+        JSONObject names = names();
+        JSONObject schema = schema();
+        for (String id : names.keySet()) {
+            arr.put(new JSONObject()
+                    .put("id", id)
+                    .put("name", names.getString(id))
+                    .put("custom", id.startsWith("customfield_"))
+                    .put("schema", schema.getJSONObject(id)));
+        }
+        return arr;
+    }
+
+    private JSONObject issue(String key, String type, String summary, String fixVersion, String component,
+                             String subcomponent, List<String> labels, LocalDateTime created, Random r) {
+        versions.add(fixVersion);
+        String self = "issue/" + key.substring(PROJECT.length() + 1);
+        String date = DATE_FORMAT.format(created);
+        String resolved = DATE_FORMAT.format(created.plusDays(1 + r.nextInt(30)));
+        String user = "user" + r.nextInt(USERS);
+
+        JSONObject fields = new JSONObject()
+                .put("summary", summary)
+                .put("description", "Description for " + summary)
+                .put("issuetype", new JSONObject()
+                        .put("self", SELF + "issuetype/" + type.length())
+                        .put("id", String.valueOf(type.length()))
+                        .put("name", type)
+                        .put("description", type)
+                        .put("subtask", false))
+                .put("project", new JSONObject()
+                        .put("self", SELF + "project/10100")
+                        .put("id", "10100")
+                        .put("key", PROJECT)
+                        .put("name", "JDK"))
+                .put("status", new JSONObject()
+                        .put("self", SELF + "status/5")
+                        .put("id", "5")
+                        .put("name", "Resolved")
+                        .put("description", "Resolved"))
+                .put("resolution", new JSONObject()
+                        .put("self", SELF + "resolution/1")
+                        .put("id", "1")
+                        .put("name", "Fixed")
+                        .put("description", "Fixed"))
+                .put("priority", new JSONObject()
+                        .put("self", SELF + "priority/3")
+                        .put("id", "3")
+                        .put("name", "P" + (1 + r.nextInt(5))))
+                .put("created", date)
+                .put("updated", resolved)
+                .put("resolutiondate", resolved)
+                .put("reporter", userJSON(user))
+                .put("assignee", userJSON(user))
+                .put("fixVersions", new JSONArray().put(version(fixVersion, 10000 + fixVersion.hashCode() % 1000)))
+                .put("versions", new JSONArray())
+                .put("labels", new JSONArray(labels))
+                .put("issuelinks", new JSONArray())
+                .put("subtasks", new JSONArray())
+                .put("comment", new JSONObject()
+                        .put("startAt", 0)
+                        .put("maxResults", 0)
+                        .put("total", 0)
+                        .put("comments", new JSONArray()))
+                .put("components", new JSONArray().put(new JSONObject()
+                        .put("self", SELF + "component/" + Math.abs(component.hashCode() % 1000))
+                        .put("id", String.valueOf(Math.abs(component.hashCode() % 1000)))
+                        .put("name", component)))
+                .put(SUBCOMPONENT_ID, new JSONObject()
+                        .put("id", String.valueOf(Math.abs(subcomponent.hashCode() % 1000)))
+                        .put("name", subcomponent));
+
+        return new JSONObject()
+                .put("id", key.substring(PROJECT.length() + 1))
+                .put("self", SELF + self)
+                .put("key", key)
+                .put("fields", fields);
+    }
+
+    private JSONObject link(String target, boolean inward) {
+        return new JSONObject()
+                .put("id", String.valueOf(target.hashCode() & 0xFFFF))
+                .put("type", new JSONObject()
+                        .put("id", "10100")
+                        .put("name", "Backport")
+                        .put("inward", "backported by")
+                        .put("outward", "backport of"))
+                .put(inward ? "inwardIssue" : "outwardIssue", new JSONObject()
+                        .put("id", target.substring(PROJECT.length() + 1))
+                        .put("key", target)
+                        .put("self", SELF + "issue/" + target.substring(PROJECT.length() + 1)));
+    }
+
+    private static JSONObject version(String name, int id) {
+        return new JSONObject()
+                .put("self", SELF + "version/" + id)
+                .put("id", String.valueOf(id))
+                .put("name", name)
+                .put("archived", false)
+                .put("released", true);
+    }
+
+    private static JSONObject userJSON(String name) {
+        return new JSONObject()
+                .put("self", SELF + "user?username=" + name)
+                .put("name", name)
+                .put("key", name)
+                .put("displayName", "User " + name.substring("user".length()))
+                .put("avatarUrls", new JSONObject().put("48x48", "http://localhost/avatar/" + name));
+    }
+
+    private static JSONObject names() {
+        JSONObject o = new JSONObject();
+        o.put("summary", "Summary");
+        o.put("description", "Description");
+        o.put("issuetype", "Issue Type");
+        o.put("project", "Project");
+        o.put("status", "Status");
+        o.put("resolution", "Resolution");
+        o.put("priority", "Priority");
+        o.put("created", "Created");
+        o.put("updated", "Updated");
+        o.put("resolutiondate", "Resolved");
+        o.put("reporter", "Reporter");
+        o.put("assignee", "Assignee");
+        o.put("fixVersions", "Fix Version/s");
+        o.put("versions", "Affects Version/s");
+        o.put("labels", "Labels");
+        o.put("issuelinks", "Linked Issues");
+        o.put("subtasks", "Sub-Tasks");
+        o.put("comment", "Comment");
+        o.put("components", "Component/s");
+        o.put(SUBCOMPONENT_ID, "Subcomponent");
+        return o;
+    }
+
+    private static JSONObject schema() {
+        JSONObject o = new JSONObject();
+        for (String id : names().keySet()) {
+            String type;
+            switch (id) {
+                case "summary":
+                case "description":
+                    type = "string";
+                    break;
+                case "created":
+                case "updated":
+                case "resolutiondate":
+                    type = "datetime";
+                    break;
+                case "fixVersions":
+                case "versions":
+                case "labels":
+                case "issuelinks":
+                case "subtasks":
+                case "components":
+                    type = "array";
+                    break;
+                case "reporter":
+                case "assignee":
+                    type = "user";
+                    break;
+                case "comment":
+                    type = "comments-page";
+                    break;
+                default:
+                    type = id.startsWith("customfield_") ? "option" : id;
+            }
+            o.put(id, new JSONObject().put("type", type));
+        }
+        return o;
+    }
+}
@@ -0,0 +1,158 @@
+package org.openjdk.backports.jira;
+
+import com.atlassian.jira.rest.client.api.domain.Issue;
+import com.google.common.collect.Multimap;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.backports.Auth;
+import org.openjdk.backports.report.model.ParityModel;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class FakeJiraTest {
+
+    private static final String API = "/rest/api/latest/";
+
+    @Test
+    public void backportLinks() throws Exception {
+        try (FakeJira jira = new FakeJira(20, 42)) {
+            URI uri = jira.start();
+            for (String key : jira.getOriginalKeys()) {
+                JSONObject json = new JSONObject(get(uri, API + "search?jql=" +
+                        URLEncoder.encode("key in (" + key + ")", "UTF-8") + "&fields=issuelinks,fixVersions"));
+                Assert.assertEquals(1, json.getInt("total"));
+
+                JSONObject issue = json.getJSONArray("issues").getJSONObject(0);
+                Assert.assertEquals(key, issue.getString("key"));
+                Assert.assertFalse(issue.getJSONObject("fields").has("summary"));
+
+                List<String> links = new ArrayList<>();
+                JSONArray arr = issue.getJSONObject("fields").getJSONArray("issuelinks");
+                for (int c = 0; c < arr.length(); c++) {
+                    links.add(arr.getJSONObject(c).getJSONObject("outwardIssue").getString("key"));
+                }
+                Assert.assertEquals(jira.getBackportKeys(key), links);
+
+                for (String bp : links) {
+                    JSONObject bpJson = new JSONObject(get(uri, API + "issue/" + bp));
+                    JSONObject link = bpJson.getJSONObject("fields").getJSONArray("issuelinks").getJSONObject(0);
+                    Assert.assertEquals(key, link.getJSONObject("inwardIssue").getString("key"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void throttling() throws Exception {
+        try (FakeJira jira = new FakeJira(1, 42)) {
+            jira.setThrottleRate(1.0);
+            jira.setRetryAfter(3);
+            URI uri = jira.start();
+
+            HttpURLConnection conn = (HttpURLConnection) new URL(uri + API + "field").openConnection();
+            Assert.assertEquals(429, conn.getResponseCode());
+            Assert.assertEquals("3", conn.getHeaderField("Retry-After"));
+            Assert.assertEquals(1, jira.getThrottled());
+        }
+    }
+
+    @Test
+    public void clientUnderPressure() throws Exception {
+        try (FakeJira jira = new FakeJira(200, 42)) {
+            jira.setLatency(5);
+            jira.setRetryAfter(0);
+            jira.setMaxResults(50);
+            URI uri = jira.start();
+
+            PrintStream out = new PrintStream(new ByteArrayOutputStream(), true, "UTF-8");
+            try (Clients clients = Connect.getClients(uri.toString(), new Auth(), 16, null, 0, 100, null)) {
+                // Field metadata is loaded once and is not retried, get it before the trouble starts.
+                clients.getFieldIds();
+                jira.setErrorRate(0.02);
+                jira.setThrottleRate(0.05);
+
+                Issues issues = new Issues(out, clients, Arrays.asList("fixVersions", "issuelinks", "Subcomponent"));
+                Multimap<Issue, Issue> map = issues.getIssuesWithBackportsFull("project = JDK");
+                Assert.assertEquals(jira.getOriginalKeys().size(), map.keySet().size());
+                for (Issue parent : map.keySet()) {
+                    Set<String> keys = new HashSet<>();
+                    for (Issue bp : map.get(parent)) {
+                        keys.add(bp.getKey());
+                    }
+                    Set<String> expected = new HashSet<>(jira.getBackportKeys(parent.getKey()));
+                    expected.add(parent.getKey());
+                    Assert.assertEquals(expected, keys);
+                }
+            }
+
+            Assert.assertTrue("Peak concurrency: " + jira.getPeakConcurrency(), jira.getPeakConcurrency() <= 16);
+        }
+    }
+
+    @Test
+    public void recordAndReplay() throws Exception {
+        File file = File.createTempFile("jira", ".archive");
+        file.deleteOnExit();
+        PrintStream out = new PrintStream(new ByteArrayOutputStream(), true, "UTF-8");
+
+        String recorded;
+        try (FakeJira jira = new FakeJira(100, 42)) {
+            jira.setLatency(2);
+            URI uri = jira.start();
+            try (Clients clients = Connect.getClients(uri.toString(), new Auth(), 16, null, 0, 20, TrafficArchive.record(file))) {
+                recorded = summary(new ParityModel(clients, out, 21));
+            }
+        }
+
+        // Server is gone, and different concurrency makes different batches.
+        TrafficArchive archive = TrafficArchive.replay(file, 1);
+        try (Clients clients = Connect.getClients("http://localhost:1", new Auth(), 3, null, 0, 20, archive)) {
+            Assert.assertEquals(recorded, summary(new ParityModel(clients, out, 21)));
+        }
+        Assert.assertEquals(Collections.emptySet(), archive.getMisses());
+    }
+
+    private static String summary(ParityModel model) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, ? extends Map<Issue, ?>> e : model.onlyOpen().entrySet()) {
+            sb.append("onlyOpen ").append(e.getKey()).append(": ").append(keys(e.getValue().keySet())).append("\n");
+        }
+        for (Map.Entry<String, ? extends Map<Issue, ?>> e : model.onlyOracle().entrySet()) {
+            sb.append("onlyOracle ").append(e.getKey()).append(": ").append(keys(e.getValue().keySet())).append("\n");
+        }
+        sb.append("exactOpenFirst: ").append(keys(model.exactOpenFirst().keySet())).append("\n");
+        sb.append("exactOracleFirst: ").append(keys(model.exactOracleFirst().keySet())).append("\n");
+        sb.append("lateOpenFirst: ").append(keys(model.lateOpenFirst().keySet())).append("\n");
+        return sb.toString();
+    }
+
+    private static Set<String> keys(Collection<Issue> issues) {
+        Set<String> keys = new TreeSet<>();
+        for (Issue i : issues) {
+            keys.add(i.getKey());
+        }
+        return keys;
+    }
+
+    private static String get(URI base, String path) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(base + path).openConnection();
+        Assert.assertEquals(200, conn.getResponseCode());
+        try (InputStream is = conn.getInputStream();
+             ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+            byte[] buf = new byte[8192];
+            int len;
+            while ((len = is.read(buf)) != -1) {
+                bos.write(buf, 0, len);
+            }
+            return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
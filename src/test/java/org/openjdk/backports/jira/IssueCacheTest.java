@@ -0,0 +1,69 @@
+package org.openjdk.backports.jira;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.*;
+
+public class IssueCacheTest {
+
+    private static final Set<String> FIELDS = Collections.singleton("summary");
+
+    @Test(timeout = 30_000)
+    public void slowLoaderDoesNotBlockOtherKeys() throws Exception {
+        IssueCache cache = new IssueCache();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService e = Executors.newSingleThreadExecutor();
+        try {
+            Future<IssuePromise> slow = e.submit(() -> cache.get(null, "Aa", FIELDS, false, () -> {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ie) {
+                    throw new IllegalStateException(ie);
+                }
+                return new ResolvedIssuePromise(null);
+            }));
+            loading.await();
+
+            // "Aa" and "BB" have the same hash code, so they land in the same map bin.
+            Assert.assertEquals("Aa".hashCode(), "BB".hashCode());
+            IssuePromise other = cache.get(null, "BB", FIELDS, false, () -> new ResolvedIssuePromise(null));
+            Assert.assertNotNull(other);
+
+            // Asking for the key that is being loaded returns the placeholder without waiting.
+            IssuePromise pending = cache.get(null, "Aa", FIELDS, false, () -> {
+                throw new AssertionError("Should not load twice");
+            });
+            Assert.assertFalse(pending.future().isDone());
+
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+            Assert.assertTrue(pending.future().isDone());
+            Assert.assertTrue(cache.has(null, "Aa", FIELDS, false));
+        } finally {
+            release.countDown();
+            e.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedLoaderIsRetried() {
+        IssueCache cache = new IssueCache();
+        try {
+            cache.get(null, "K", FIELDS, false, () -> {
+                throw new IllegalStateException("boom");
+            });
+            Assert.fail("Should have thrown");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertFalse(cache.has(null, "K", FIELDS, false));
+        Assert.assertNotNull(cache.get(null, "K", FIELDS, false, () -> new ResolvedIssuePromise(null)));
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.openjdk.backports.jira;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+public class PushCommentTest {
+
+    static final String[] LINES = {
+            "Changeset: d9cb410e",
+            "Author: Aleksey Shipilev <shade@openjdk.org>",
+            "Date: 2022-07-31 18:52:16 +0000",
+            "URL: https://git.openjdk.org/jdk/commit/d9cb410efc07a60e426f2399e020dcaccaba7dfa",
+    };
+
+    @Test
+    public void lineTerminators() {
+        for (String sep : new String[] { "\n", "\r\n", "\r" }) {
+            PushComment pc = PushComment.parse(String.join(sep, LINES) + sep);
+            Assert.assertEquals("https://git.openjdk.org/jdk/commit/d9cb410efc07a60e426f2399e020dcaccaba7dfa", pc.getURL());
+            Assert.assertEquals("shade", pc.getUser());
+            Assert.assertEquals("2022-07-31 18:52:16 +0000", pc.getDate());
+            Assert.assertEquals(LocalDateTime.of(2022, 7, 31, 18, 52, 16), pc.getDateTime());
+        }
+    }
+
+    @Test
+    public void mixedLineTerminators() {
+        PushComment pc = PushComment.parse("URL: http://hg.openjdk.java.net/jdk/jdk/rev/66f5241da404\r\r\n" +
+                "User: shade\r" +
+                "Date: 2019-04-15 16:22:25 +0000");
+        Assert.assertEquals("http://hg.openjdk.java.net/jdk/jdk/rev/66f5241da404", pc.getURL());
+        Assert.assertEquals("shade", pc.getUser());
+        Assert.assertEquals("2019-04-15 16:22:25 +0000", pc.getDate());
+    }
+
+    @Test
+    public void authorMismatch() {
+        // Author without the e-mail does not count, and the later User line does.
+        PushComment pc = PushComment.parse("Author: Aleksey Shipilev\nUser: shade\nAuthor: Someone <someone@example.org>");
+        Assert.assertEquals("shade", pc.getUser());
+
+        pc = PushComment.parse("Author: Aleksey Shipilev\nDate: 2022-07-31 18:52:16 +0000");
+        Assert.assertNull(pc.getUser());
+        Assert.assertNotNull(pc.getDate());
+    }
+
+    @Test
+    public void authorGeneric() {
+        Assert.assertEquals("shade@redhat.com", PushComment.parse("Author: Aleksey Shipilev <shade@redhat.com>").getUser());
+    }
+
+    @Test
+    public void tagMidLine() {
+        // Only the lines that start with the tag count.
+        PushComment pc = PushComment.parse("Backport of the original, see URL: http://example.org/1\n" +
+                "URL: http://example.org/2");
+        Assert.assertEquals("http://example.org/2", pc.getURL());
+
+        pc = PushComment.parse("See URL: http://example.org/1");
+        Assert.assertNull(pc.getURL());
+    }
+
+    @Test
+    public void tagWithoutColon() {
+        // The first "URL:" is dropped wherever it is in the line, the same as replaceFirst did.
+        Assert.assertEquals("URL http://example.org/1", PushComment.parse("URL http://example.org/1 URL:").getURL());
+        Assert.assertEquals("URLs are here", PushComment.parse("URLs are here").getURL());
+    }
+
+    @Test
+    public void empty() {
+        PushComment pc = PushComment.parse("");
+        Assert.assertNull(pc.getURL());
+        Assert.assertNull(pc.getUser());
+        Assert.assertNull(pc.getDate());
+        Assert.assertNull(pc.getDateTime());
+    }
+
+}
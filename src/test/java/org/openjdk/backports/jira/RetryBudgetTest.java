@@ -0,0 +1,49 @@
+package org.openjdk.backports.jira;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void refillsWithTime() {
+        AtomicLong now = new AtomicLong();
+        RetryBudget budget = new RetryBudget(now::get);
+
+        // Burst uses up the reserve.
+        int allowed = 0;
+        while (budget.withdraw()) {
+            allowed++;
+        }
+        Assert.assertEquals(20, allowed);
+        Assert.assertFalse(budget.withdraw());
+
+        // Few requests add little.
+        for (int c = 0; c < 5; c++) {
+            budget.deposit();
+        }
+        Assert.assertTrue(budget.withdraw());
+        Assert.assertFalse(budget.withdraw());
+
+        // Time brings retries back, even without new requests.
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        for (int c = 0; c < 5; c++) {
+            Assert.assertTrue(budget.withdraw());
+        }
+        Assert.assertFalse(budget.withdraw());
+    }
+
+    @Test
+    public void budgetsAreIndependent() {
+        ConcurrencyLimiter l1 = new ConcurrencyLimiter(1);
+        ConcurrencyLimiter l2 = new ConcurrencyLimiter(1);
+        while (l1.getRetryBudget().withdraw()) {
+            // drain
+        }
+        Assert.assertTrue(l2.getRetryBudget().withdraw());
+    }
+
+}
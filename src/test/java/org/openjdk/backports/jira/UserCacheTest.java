@@ -0,0 +1,65 @@
+package org.openjdk.backports.jira;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class UserCacheTest {
+
+    private static String user(String name, String email) {
+        return "{\"self\": \"https://bugs.openjdk.org/rest/api/2/user?username=" + name + "\", " +
+                "\"name\": \"" + name + "\", " +
+                "\"key\": \"" + name + "\", " +
+                "\"displayName\": \"Joe Random\", " +
+                "\"avatarUrls\": {\"48x48\": \"https://bugs.openjdk.org/avatar.png\"}" +
+                ((email != null) ? ", \"emailAddress\": \"" + email + "\"" : "") +
+                "}";
+    }
+
+    private static UserCache withUsers(String... idsAndJsons) throws IOException {
+        File dir = Files.createTempDirectory("users").toFile();
+        dir.deleteOnExit();
+        File file = new File(dir, "users/users.json");
+        file.getParentFile().mkdirs();
+
+        StringBuilder sb = new StringBuilder("{");
+        for (int c = 0; c < idsAndJsons.length; c += 2) {
+            if (c > 0) {
+                sb.append(", ");
+            }
+            sb.append("\"").append(idsAndJsons[c]).append("\": {\"fetched\": ")
+                    .append(System.currentTimeMillis()).append(", \"user\": ").append(idsAndJsons[c + 1]).append("}");
+        }
+        sb.append("}");
+        Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        // All users come from the fresh disk cache, nothing goes to JIRA.
+        return new UserCache(null, null, new UserDiskCache(dir, 1), null);
+    }
+
+    @Test
+    public void affiliationByEmail() throws IOException {
+        UserCache cache = withUsers("redhat", user("redhat", "joe@redhat.com"));
+        Assert.assertEquals("Red Hat", cache.getAffiliation("redhat"));
+    }
+
+    @Test
+    public void affiliationWithoutEmail() throws IOException {
+        UserCache cache = withUsers(
+                "nomail", user("nomail", null),
+                "joe@redhat.com", user("joe@redhat.com", null));
+        Assert.assertEquals("Unknown", cache.getAffiliation("nomail"));
+        Assert.assertEquals("Red Hat", cache.getAffiliation("joe@redhat.com"));
+    }
+
+    @Test
+    public void affiliationWithBadEmail() throws IOException {
+        UserCache cache = withUsers("badmail", user("badmail", "not-an-email"));
+        Assert.assertEquals("Unknown", cache.getAffiliation("badmail"));
+    }
+
+}